@@ -0,0 +1,142 @@
+package jump61;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** JMH benchmarks of the basic operations on boards, each applied to a
+ *  position part way through a random game on a board of each size.
+ *  Moves are undone in the same operation that makes them, so that
+ *  every operation starts from the same position.
+ *  @author Iskander Rakhmanberdiyev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    /** Number of rows and of columns. */
+    @Param({ "4", "6", "10", "20" })
+    public int size;
+
+    /** Set up a position after random moves, filling about half of the
+     *  squares' capacity, with a quiet move and a jumping move for the
+     *  player to move. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        _board = Positions.random(size, size * size, size);
+        _player = _board.whoseMove();
+        _copy = Game.newBoard(size);
+        _quiet = _jumping = -1;
+        for (int n = 0; n < size * size; n += 1) {
+            if (!_player.playableSquare(_board.color(n))) {
+                continue;
+            }
+            if (_board.spots(n) < _board.neighbors(n)) {
+                if (_quiet < 0 || _board.spots(n) < _board.spots(_quiet)) {
+                    _quiet = n;
+                }
+            } else if (_jumping < 0) {
+                _jumping = n;
+            }
+        }
+        if (_jumping < 0) {
+            _jumping = _quiet == 0 ? 1 : 0;
+            _board.set(_jumping, _board.neighbors(_jumping), _player);
+        }
+    }
+
+    /** Make a move that causes no jumps, and undo it. */
+    @Benchmark
+    public long addSpotQuiet() {
+        _board.addSpot(_player, _quiet);
+        long key = _board.hashKey();
+        _board.undo();
+        return key;
+    }
+
+    /** Make a move that starts a chain of jumps, and undo it. */
+    @Benchmark
+    public long addSpotCascade() {
+        _board.addSpot(_player, _jumping);
+        long key = _board.hashKey();
+        _board.undo();
+        return key;
+    }
+
+    /** Copy the whole board. */
+    @Benchmark
+    public MutableBoard copy() {
+        _copy.copy(_board);
+        return _copy;
+    }
+
+    /** Count squares of one color. */
+    @Benchmark
+    public int numOfColor() {
+        return _board.numOfColor(Color.RED);
+    }
+
+    /** Check for a winner. */
+    @Benchmark
+    public Color getWinner() {
+        return _board.getWinner();
+    }
+
+    /** Dump the board as text. */
+    @Benchmark
+    public String dump() {
+        return _board.toString();
+    }
+
+    /** Undo a jumping move, made beforehand outside the measurement. */
+    @State(Scope.Thread)
+    public static class Undo {
+
+        /** A board from BENCH, on which a jumping move has been made. */
+        @Setup(Level.Invocation)
+        public void setUp(BoardBenchmark bench) {
+            _bench = bench;
+            bench._board.addSpot(bench._player, bench._jumping);
+        }
+
+        /** The benchmark whose board I use. */
+        private BoardBenchmark _bench;
+    }
+
+    /** Undo a move that caused a chain of jumps.  Setting up each
+     *  invocation has an overhead comparable to the operation itself, so
+     *  compare results of this benchmark only with each other. */
+    @Benchmark
+    public MutableBoard undo(Undo state) {
+        state._bench._board.undo();
+        return state._bench._board;
+    }
+
+    /** The board operated on. */
+    private MutableBoard _board;
+
+    /** Target for copies. */
+    private MutableBoard _copy;
+
+    /** The player to move on _board. */
+    private Color _player;
+
+    /** Squares on which _player may move without, and with, jumping. */
+    private int _quiet, _jumping;
+
+}
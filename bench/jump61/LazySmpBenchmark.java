@@ -0,0 +1,79 @@
+package jump61;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+/** Measures how long an AI player using lazy SMP takes to search
+ *  positions to a fixed depth with various numbers of threads.  Each
+ *  position is reached by random moves from an empty board, and each
+ *  search is timed from a fresh Game, so that no thread count benefits
+ *  from another's transposition table.  Usage:
+ *      java jump61.LazySmpBenchmark [DEPTH [SIZE [POSITIONS [REPS]]]]
+ *  @author Iskander Rakhmanberdiyev
+ */
+class LazySmpBenchmark {
+
+    /** Numbers of threads to compare. */
+    static final int[] THREADS = { 1, 2, 4, 8, 16 };
+
+    /** Run the benchmark with arguments ARGS as described above. */
+    public static void main(String... args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int positions = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int reps = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        System.out.printf("Lazy SMP: %dx%d boards, depth %d, %d positions,"
+                          + " best of %d; %d processors%n",
+                          size, size, depth, positions, reps,
+                          Runtime.getRuntime().availableProcessors());
+        String[] setups = new String[positions];
+        for (int i = 0; i < positions; i += 1) {
+            setups[i] = position(size, 2 * size + 3 * i, i);
+        }
+        run(setups, depth, 1, 1);
+        double base = 0.0;
+        for (int threads : THREADS) {
+            double total = 0.0;
+            for (String setup : setups) {
+                total += run(new String[] { setup }, depth, threads, reps);
+            }
+            if (threads == 1) {
+                base = total;
+            }
+            System.out.printf("%3d threads: %9.1f ms  (speedup %.2f)%n",
+                              threads, total, base / total);
+        }
+    }
+
+    /** Returns the least over REPS trials of the total time in
+     *  milliseconds for an AI with THREADS threads to choose a move to
+     *  depth DEPTH from each of the positions set up by SETUPS. */
+    static double run(String[] setups, int depth, int threads, int reps) {
+        double total = 0.0;
+        for (String setup : setups) {
+            double[] times = new double[reps];
+            for (int k = 0; k < reps; k += 1) {
+                String script = String.format("depth %d%nthreads %d%n"
+                                              + "parallel lazy%n%sstart%n",
+                                              depth, threads, setup);
+                StringWriter out = new StringWriter();
+                Game game = new Game(new StringReader(script), out, out, out);
+                long start = System.nanoTime();
+                game.play();
+                times[k] = (System.nanoTime() - start) / 1e6;
+            }
+            Arrays.sort(times);
+            total += times[0];
+        }
+        return total;
+    }
+
+    /** Returns commands setting up the position on a SIZE x SIZE board
+     *  after PLIES random moves chosen with seed SEED, as for
+     *  Positions.setup. */
+    static String position(int size, int plies, long seed) {
+        return Positions.setup(Positions.random(size, plies, seed), seed);
+    }
+}
@@ -0,0 +1,241 @@
+package jump61;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Drives many simultaneous sessions against a game server and reports
+ *  its throughput and the latency of its responses.  Each session
+ *  connects, sets up a small game in which an AI makes the first move,
+ *  dumps the board repeatedly, and quits, sending each command only
+ *  after the response to the last (up to the next prompt) arrives.
+ *  The sessions all connect before any sends a command.  Unless a port
+ *  is given, a Server is started in this process on a free port.  Each
+ *  session then holds both ends of its connection, and so two open
+ *  files and, without virtual threads, two platform threads.  Where
+ *  that exceeds the process's limits, run the server in a process of
+ *  its own ('java jump61.Main --serve PORT') and give its PORT.
+ *  Usage:
+ *      java jump61.LoadTest [SESSIONS [DUMPS [PORT [HOST]]]]
+ *  @author Iskander Rakhmanberdiyev
+ */
+class LoadTest {
+
+    /** Commands each session sends before its dumps. */
+    static final String[] SETUP = {
+        "size 4", "depth 1", "endgame 0", "auto red", "start",
+    };
+
+    /** Run the load test with arguments ARGS as described above. */
+    public static void main(String... args)
+        throws IOException, InterruptedException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int dumps = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        String host = args.length > 3 ? args[3] : "localhost";
+
+        Server server = null;
+        if (port == 0) {
+            server =
+                new Server(0, Runtime.getRuntime().availableProcessors());
+            port = server.port();
+            Server local = server;
+            Thread acceptor = new Thread(local::serve, "jump61-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        LoadTest test = new LoadTest(sessions, dumps, host, port);
+        test.run();
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /** A test of SESSIONS sessions that each dump the board DUMPS times,
+     *  against the server on port PORT of HOST. */
+    LoadTest(int sessions, int dumps, String host, int port) {
+        _sessions = sessions;
+        _dumps = dumps;
+        _host = host;
+        _port = port;
+        _latencies = new long[sessions][];
+        _started = new long[sessions];
+    }
+
+    /** Run all the sessions and report the results. */
+    void run() throws InterruptedException {
+        ExecutorService pool = Server.newSessionExecutor();
+        CountDownLatch connected = new CountDownLatch(_sessions),
+            done = new CountDownLatch(_sessions);
+        long start = System.nanoTime();
+        for (int i = 0; i < _sessions; i += 1) {
+            int session = i;
+            pool.execute(() -> {
+                try {
+                    session(session, connected);
+                } catch (IOException excp) {
+                    if (_failures.getAndIncrement() == 0) {
+                        System.err.printf("session failed: %s%n", excp);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long end = System.nanoTime();
+        pool.shutdown();
+        long begin = end;
+        for (int i = 0; i < _sessions; i += 1) {
+            if (_latencies[i] != null) {
+                begin = Math.min(begin, _started[i]);
+            }
+        }
+        report((begin - start) / 1e9, (end - begin) / 1e9);
+    }
+
+    /** Carry out session #K, counting down CONNECTED once connected, or
+     *  on failing to connect, and then waiting for it to reach zero
+     *  before sending commands. */
+    private void session(int k, CountDownLatch connected)
+        throws IOException {
+        boolean counted = false;
+        try (Socket socket = new Socket(_host, _port)) {
+            socket.setTcpNoDelay(true);
+            Reader input =
+                new InputStreamReader(socket.getInputStream(), UTF_8);
+            Writer output = new BufferedWriter(
+                new OutputStreamWriter(socket.getOutputStream(), UTF_8));
+            connected.countDown();
+            counted = true;
+            try {
+                connected.await();
+            } catch (InterruptedException excp) {
+                return;
+            }
+            _started[k] = System.nanoTime();
+            readResponse(input);
+            long[] times = new long[SETUP.length + _dumps];
+            int n = 0;
+            for (String command : SETUP) {
+                times[n] = command(command, input, output);
+                n += 1;
+            }
+            for (int i = 0; i < _dumps; i += 1) {
+                times[n] = command("dump", input, output);
+                n += 1;
+            }
+            output.write("quit\n");
+            output.flush();
+            _latencies[k] = times;
+        } finally {
+            if (!counted) {
+                connected.countDown();
+            }
+        }
+    }
+
+    /** Send COMMAND on OUTPUT and wait for the response on INPUT,
+     *  returning the time taken in nanoseconds. */
+    private static long command(String command, Reader input,
+                                Writer output) throws IOException {
+        long start = System.nanoTime();
+        output.write(command);
+        output.write('\n');
+        output.flush();
+        readResponse(input);
+        return System.nanoTime() - start;
+    }
+
+    /** Read from INPUT up to and including the next prompt, which ends
+     *  in "> ".  Throws IOException if the input ends first. */
+    private static void readResponse(Reader input) throws IOException {
+        int last = 0;
+        while (true) {
+            int c = input.read();
+            if (c < 0) {
+                throw new IOException("connection closed");
+            } else if (c == ' ' && last == '>') {
+                return;
+            }
+            last = c;
+        }
+    }
+
+    /** Print the results, where connecting took CONNECTING seconds and
+     *  the commands RUNNING seconds. */
+    private void report(double connecting, double running) {
+        List<long[]> all = new ArrayList<>();
+        int count = 0;
+        for (long[] times : _latencies) {
+            if (times != null) {
+                all.add(times);
+                count += times.length;
+            }
+        }
+        long[] times = new long[count];
+        int k = 0;
+        for (long[] session : all) {
+            System.arraycopy(session, 0, times, k, session.length);
+            k += session.length;
+        }
+        Arrays.sort(times);
+        System.out.printf("%d sessions (%d failed), %d commands each; "
+                          + "%.2f s to connect%n", _sessions,
+                          _failures.get(), SETUP.length + _dumps,
+                          connecting);
+        System.out.printf("%d commands in %.2f s: %.0f commands/s%n",
+                          count, running, count / running);
+        if (count > 0) {
+            System.out.printf("latency (ms): p50 %.3f, p90 %.3f, "
+                              + "p99 %.3f, max %.3f%n",
+                              percentile(times, 50), percentile(times, 90),
+                              percentile(times, 99),
+                              percentile(times, 100));
+        }
+    }
+
+    /** Returns the Pth percentile of TIMES, in nanoseconds and sorted
+     *  in increasing order, in milliseconds. */
+    private static double percentile(long[] times, int p) {
+        int k = (int) Math.ceil(p / 100.0 * times.length) - 1;
+        return times[Math.max(k, 0)] / 1e6;
+    }
+
+    /** Number of sessions. */
+    private final int _sessions;
+
+    /** Number of dumps per session. */
+    private final int _dumps;
+
+    /** Server address. */
+    private final String _host;
+
+    /** Server port. */
+    private final int _port;
+
+    /** Latencies of the commands of each session, in nanoseconds, or
+     *  null for sessions that failed. */
+    private final long[][] _latencies;
+
+    /** Times at which each session began sending commands, in
+     *  nanoseconds. */
+    private final long[] _started;
+
+    /** Number of sessions that failed. */
+    private final AtomicInteger _failures = new AtomicInteger();
+
+}
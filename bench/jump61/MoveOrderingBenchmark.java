@@ -0,0 +1,56 @@
+package jump61;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+/** Compares the number of positions an AI player searches to choose a
+ *  move at a fixed depth with heuristic move ordering and symmetry
+ *  pruning ("ordering on") and with moves tried in order of square
+ *  number ("ordering off"), from the empty board and from positions
+ *  reached by random moves.  Usage:
+ *      java jump61.MoveOrderingBenchmark [DEPTH [SIZE [POSITIONS]]]
+ *  @author Iskander Rakhmanberdiyev
+ */
+class MoveOrderingBenchmark {
+
+    /** Run the benchmark with arguments ARGS as described above. */
+    public static void main(String... args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int positions = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        System.out.printf("Move ordering: %dx%d boards, depth %d%n",
+                          size, size, depth);
+        System.out.printf("%-10s %12s %12s %10s%n",
+                          "position", "ordered", "row-major", "reduction");
+        long totalOn, totalOff;
+        totalOn = totalOff = 0;
+        for (int i = 0; i <= positions; i += 1) {
+            String setup = i == 0
+                ? String.format("size %d%nauto red%nmanual blue%n", size)
+                : LazySmpBenchmark.position(size, 2 * size + 3 * i, i);
+            long on = nodes(setup, depth, "on"),
+                off = nodes(setup, depth, "off");
+            totalOn += on;
+            totalOff += off;
+            System.out.printf("%-10s %12d %12d %9.1f%%%n",
+                              i == 0 ? "empty" : "random " + i,
+                              on, off, 100.0 * (off - on) / off);
+        }
+        System.out.printf("%-10s %12d %12d %9.1f%%%n", "total",
+                          totalOn, totalOff,
+                          100.0 * (totalOff - totalOn) / totalOff);
+    }
+
+    /** Returns the number of positions an AI searches to depth DEPTH
+     *  to choose a move from the position set up by SETUP, with move
+     *  ordering set to ORDERING ("on" or "off"). */
+    static long nodes(String setup, int depth, String ordering) {
+        String script = String.format("depth %d%nordering %s%n%sstart%n",
+                                      depth, ordering, setup);
+        StringWriter out = new StringWriter();
+        Game game = new Game(new StringReader(script), out, out, out);
+        game.play();
+        return game.searchNodes();
+    }
+}
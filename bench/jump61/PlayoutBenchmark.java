@@ -0,0 +1,65 @@
+package jump61;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** JMH benchmark of random playouts to the end of the game, from the
+ *  empty board and from a position part way through a random game.
+ *  Run with -t to measure several threads, each with its own Playout.
+ *  @author Iskander Rakhmanberdiyev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayoutBenchmark {
+
+    /** Number of rows and of columns. */
+    @Param({ "4", "6", "10", "20" })
+    public int size;
+
+    /** Set up the positions and the Playout. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        _empty = Game.newBoard(size);
+        _midgame = Positions.random(size, size * size, size);
+        _playout = new Playout();
+        _playout.setRandom(new SplittableRandom(size));
+    }
+
+    /** Play out a game from the empty board. */
+    @Benchmark
+    public Color fromEmpty() {
+        _playout.load(_empty);
+        return _playout.play();
+    }
+
+    /** Play out a game from part way through. */
+    @Benchmark
+    public Color fromMidgame() {
+        _playout.load(_midgame);
+        return _playout.play();
+    }
+
+    /** The starting positions. */
+    private MutableBoard _empty, _midgame;
+
+    /** The engine under test. */
+    private Playout _playout;
+
+}
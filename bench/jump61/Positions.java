@@ -0,0 +1,52 @@
+package jump61;
+
+import java.util.Random;
+
+/** Positions on which to run benchmarks.
+ *  @author Iskander Rakhmanberdiyev
+ */
+class Positions {
+
+    /** Returns a SIZE x SIZE board holding the position after PLIES
+     *  random legal moves, chosen with seed SEED, from the empty board,
+     *  or fewer if a player wins first. */
+    static MutableBoard random(int size, int plies, long seed) {
+        Random random = new Random(seed);
+        MutableBoard board = Game.newBoard(size);
+        for (int ply = 0; ply < plies && board.getWinner() == null; ) {
+            int n = random.nextInt(size * size);
+            Color player = board.whoseMove();
+            if (player.playableSquare(board.color(n))) {
+                board.addSpot(player, n);
+                ply += 1;
+            }
+        }
+        return board;
+    }
+
+    /** Returns commands setting up the position on BOARD, seeding the
+     *  random-number generator with SEED, with the player to move an AI
+     *  and the other player manual, so that a game started from it ends
+     *  after one AI move.  Squares holding as many spots as they have
+     *  neighbors lose one, since the set command allows no more. */
+    static String setup(Board board, long seed) {
+        int size = board.size();
+        StringBuilder setup = new StringBuilder();
+        setup.append(String.format("seed %d%nsize %d%n", seed, size));
+        for (int n = 0; n < size * size; n += 1) {
+            int spots = Math.min(board.spots(n), board.neighbors(n) - 1);
+            if (spots > 0) {
+                setup.append(String.format("set %d %d %d %s%n",
+                                           board.row(n), board.col(n), spots,
+                                           board.color(n) == Color.RED
+                                           ? "r" : "b"));
+            }
+        }
+        Color mover = board.whoseMove();
+        setup.append(String.format("move %d%nauto %s%nmanual %s%n",
+                                   board.numMoves(), mover,
+                                   mover.opposite()));
+        return setup.toString();
+    }
+
+}
@@ -0,0 +1,76 @@
+package jump61;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** JMH benchmark of an AI player choosing a move by searching to a
+ *  fixed depth with one thread, from a position part way through a
+ *  random game.  The transposition table is emptied before each move,
+ *  so that each search starts from scratch, and neither an opening book
+ *  nor the endgame solver is used.
+ *  @author Iskander Rakhmanberdiyev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    /** Number of rows and of columns. */
+    @Param({ "4", "6", "10", "20" })
+    public int size;
+
+    /** Search depth. */
+    @Param({ "1", "2", "3" })
+    public int depth;
+
+    /** Set up the game, its AI, and the position. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        String script = String.format("seed 0%ndepth %d%nhash 4%n"
+                                      + "endgame 0%n", depth);
+        StringWriter out = new StringWriter();
+        _game = new Game(new StringReader(script), out, out, out);
+        _game.play();
+        _board = Positions.random(size, size * size / 2, size);
+        _ai = new AI(_game, _board.whoseMove());
+    }
+
+    /** Empty the transposition table. */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        _game.table().clear();
+    }
+
+    /** Choose a move. */
+    @Benchmark
+    public int chooseMove() {
+        return _ai.chooseMove(_board);
+    }
+
+    /** The game supplying the AI's settings. */
+    private Game _game;
+
+    /** The AI under test. */
+    private AI _ai;
+
+    /** The position searched. */
+    private MutableBoard _board;
+
+}
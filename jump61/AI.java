@@ -1,8 +1,19 @@
 package jump61;
 
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
-/** An automated Player.
+/** An automated Player.  An AI searches the game tree from the current
+ *  position with alpha-beta pruning, deepening one level at a time
+ *  until it reaches its depth limit or runs out of time.  When its game
+ *  allows more than one thread, the work is shared among Workers, each
+ *  searching its own copy of the board.  Either the moves from the
+ *  current position are shared out among the Workers at each depth, or,
+ *  in "lazy" mode, one Worker searches as usual while the others search
+ *  the same position in parallel in slightly different orders, helping
+ *  only by filling the shared transposition table.
  *  @author Iskander Rakhmanberdiyev
  */
 class AI extends Player {
@@ -11,13 +22,176 @@ class AI extends Player {
      *  moves automatically.
      */
     AI(Game game, Color color) {
+        this(game, color, -1);
+    }
+
+    /** A new player of GAME initially playing COLOR that chooses
+     *  moves automatically, searching to depth DEPTH when not limited by
+     *  time, or to GAME's search depth if DEPTH is negative. */
+    AI(Game game, Color color, int depth) {
         super(game, color);
-        // FIXME
+        _depth = depth;
     }
 
     @Override
     void makeMove() {
-        // FIXME
+        Board board = getBoard();
+        int move = getGame().search(() -> chooseMove(board));
+        getGame().message("%s moves %d %d.%n",
+                          getColor().toCapitalizedString(),
+                          board.row(move), board.col(move));
+        getGame().makeMove(move);
+    }
+
+    /** Returns the number of the square on which I would add a spot in
+     *  the position on BOARD, where it is my turn and the game is not
+     *  yet won.  Positions in my game's opening book take their move from
+     *  there; others are searched, first by the endgame solver if few
+     *  enough squares are not yet critical. */
+    int chooseMove(Board board) {
+        OpeningBook book = getGame().book();
+        if (book != null) {
+            int move = book.lookup(board);
+            if (move != OpeningBook.NO_MOVE
+                && getColor().playableSquare(board.color(move))) {
+                return move;
+            }
+        }
+
+        long start = System.nanoTime();
+        int threads = getGame().threads();
+        if (_work == null || _work.size() != board.size()) {
+            _work = Game.newBoard(board.size());
+            _order = new int[board.size() * board.size()];
+            _orderValues = new int[_order.length];
+            _workers = null;
+        }
+        if (_workers == null || _workers.length != threads) {
+            _workers = new Worker[threads];
+            for (int i = 0; i < threads; i += 1) {
+                _workers[i] = new Worker(board.size(), i);
+            }
+        }
+        _work.copy(board);
+        _table = getGame().table();
+        _table.newSearch();
+
+        Color p = getColor();
+        boolean ordering = getGame().moveOrdering();
+        int syms = ordering ? symmetries(_work) : 0;
+        _numOrdered = 0;
+        for (int n = 0; n < _work.size() * _work.size(); n += 1) {
+            if (p.playableSquare(_work.color(n))
+                && canonicalMove(_work.geometry(), syms, n) == n) {
+                _order[_numOrdered] = n;
+                _numOrdered += 1;
+            }
+        }
+        long budget = getGame().thinkMillis();
+        int maxDepth = budget > 0 ? Defaults.MAX_DEPTH
+            : _depth >= 0 ? _depth : getGame().searchDepth();
+        _deadline = Long.MAX_VALUE;
+        _aborted = false;
+        _lazy = threads > 1 && getGame().lazySmp();
+        for (Worker worker : _workers) {
+            worker.newSearch(ordering);
+        }
+        int endgame = getGame().endgameSquares();
+        if (endgame > 0 && nonCritical(_work) <= endgame) {
+            if (budget > 0) {
+                _deadline = start + budget * 1000000;
+            }
+            int move = solve(p);
+            _deadline = Long.MAX_VALUE;
+            _aborted = false;
+            if (move != TranspositionTable.NO_MOVE) {
+                for (Worker worker : _workers) {
+                    worker.reportStats();
+                }
+                return move;
+            }
+        }
+        ArrayList<ForkJoinTask<?>> helpers = new ArrayList<>();
+        if (_lazy) {
+            for (int i = 1; i < threads; i += 1) {
+                Worker helper = _workers[i];
+                helper.copy(_work);
+                helpers.add(getGame().pool()
+                            .submit(() -> helper.help(p, maxDepth)));
+            }
+        }
+        ArrayList<Integer> chosen = new ArrayList<>();
+        for (int d = 0; d <= maxDepth; d += 1) {
+            int value = minmax(p, _work, d, INFINITY, _moves);
+            if (_aborted) {
+                break;
+            }
+            chosen.clear();
+            chosen.addAll(_moves);
+            if (Math.abs(value) > WINNING_VALUE / 2) {
+                break;
+            }
+            if (d == 0 && budget > 0) {
+                _deadline = start + budget * 1000000;
+            }
+        }
+        _aborted = true;
+        for (ForkJoinTask<?> helper : helpers) {
+            helper.join();
+        }
+        for (Worker worker : _workers) {
+            worker.reportStats();
+        }
+
+        return chosen.get(getGame().randInt(chosen.size()));
+    }
+
+    /** Returns the move for P on _work, set up as for minmax, that wins
+     *  soonest if P can force a win, or if every move loses by force,
+     *  one that loses as late as possible, or NO_MOVE if neither can be
+     *  shown within ENDGAME_NODES positions searched or the time allowed.
+     *  Tries to prove a win and then a loss within increasing numbers
+     *  of moves, with null-window searches in which every position not
+     *  yet decided is worth 0 (see _solving), so that the first win
+     *  proved is the soonest.  Proved results stay in _table, where
+     *  they serve all later searches. */
+    private int solve(Color p) {
+        Worker solver = _workers[0];
+        solver.limitNodes(ENDGAME_NODES);
+        _solving = true;
+        int result = TranspositionTable.NO_MOVE;
+        for (int d = 0; d <= Defaults.MAX_DEPTH && !_aborted; d += 1) {
+            if (solver.search(p, _work, d, WINNING_VALUE / 2 - 1,
+                              WINNING_VALUE / 2) >= WINNING_VALUE / 2
+                && !_aborted) {
+                result = solver.tableMove(_work);
+                break;
+            }
+            if (solver.search(p, _work, d, -WINNING_VALUE / 2,
+                              -WINNING_VALUE / 2 + 1) <= -WINNING_VALUE / 2
+                && !_aborted) {
+                minmax(p, _work, d, INFINITY, _moves);
+                if (!_aborted && !_moves.isEmpty()) {
+                    result = _moves.get(0);
+                }
+                break;
+            }
+        }
+        _solving = false;
+        solver.limitNodes(Long.MAX_VALUE);
+        return result;
+    }
+
+    /** Returns the number of squares of B holding fewer spots than they
+     *  have neighbors. */
+    private static int nonCritical(MutableBoard b) {
+        int count = 0;
+        for (int n = 0; n < b.size() * b.size(); n += 1) {
+            if (b.spots(n) < b.neighbors(n)) {
+                count += 1;
+            }
+        }
+        return count;
     }
 
     /** Return the minimum of CUTOFF and the minmax value of board B
@@ -26,20 +200,586 @@ class AI extends Player {
      *  If MOVES is not null and CUTOFF is not exceeded, set MOVES to
      *  a list of all highest-scoring moves for P; clear it if
      *  non-null and CUTOFF is exceeded. the contents of B are
-     *  invariant over this call. */
-    private int minmax(Color p, Board b, int d, int cutoff,
+     *  invariant over this call.  When MOVES is not null, B must be
+     *  the board for which makeMove set up _order, whose moves are tried
+     *  in order and then rearranged best first for the next search.
+     *  The first is searched alone, and unless in lazy mode, the rest
+     *  are shared among my Workers.  If the search runs out of time,
+     *  sets _aborted, and the result is meaningless. */
+    private int minmax(Color p, MutableBoard b, int d, int cutoff,
         ArrayList<Integer> moves) {
-        return 0;
-        // FIXME
+        if (moves == null) {
+            return _workers[0].search(p, b, d, -INFINITY, cutoff);
+        }
+        moves.clear();
+        _orderValues[0] =
+            _workers[0].evalMove(p, b, _order[0], d, -INFINITY, cutoff);
+        _rootBest.set(_orderValues[0]);
+        _nextRootMove.set(1);
+        if (_workers.length == 1 || _lazy) {
+            _workers[0].searchRoot(p, b, d, cutoff);
+        } else {
+            ArrayList<Callable<Void>> tasks = new ArrayList<>();
+            for (Worker worker : _workers) {
+                worker.copy(b);
+                tasks.add(() -> {
+                    worker.searchRoot(p, worker.board(), d, cutoff);
+                    return null;
+                });
+            }
+            getGame().pool().invokeAll(tasks);
+        }
+        if (_aborted) {
+            return 0;
+        }
+
+        int best = _rootBest.get();
+        if (best >= cutoff) {
+            return cutoff;
+        }
+        for (int i = 0; i < _numOrdered; i += 1) {
+            if (_orderValues[i] == best) {
+                moves.add(_order[i]);
+            }
+        }
+        sortOrder();
+        return best;
+    }
+
+    /** Rearrange the first _numOrdered moves in _order in decreasing order
+     *  of _orderValues, keeping equally valued moves in their previous
+     *  order.  Values below the best are only upper bounds, but still
+     *  rank moves usefully. */
+    private void sortOrder() {
+        for (int i = 1; i < _numOrdered; i += 1) {
+            int move = _order[i], value = _orderValues[i];
+            int j;
+            for (j = i; j > 0 && _orderValues[j - 1] < value; j -= 1) {
+                _order[j] = _order[j - 1];
+                _orderValues[j] = _orderValues[j - 1];
+            }
+            _order[j] = move;
+            _orderValues[j] = value;
+        }
+    }
+
+    /** Returns the set of symmetries of B other than the identity that
+     *  leave its contents unchanged, as a bit mask in which bit S stands
+     *  for symmetry #S (see Geometry.transform). */
+    private static int symmetries(MutableBoard b) {
+        Geometry geom = b.geometry();
+        int squares = b.size() * b.size();
+        int result = 0;
+        for (int s = 1; s < Geometry.SYMMETRIES; s += 1) {
+            int n;
+            for (n = 0; n < squares; n += 1) {
+                int m = geom.transform(s, n);
+                if (b.owner(m) != b.owner(n) || b.spots(m) != b.spots(n)) {
+                    break;
+                }
+            }
+            if (n == squares) {
+                result |= 1 << s;
+            }
+        }
+        return result;
+    }
+
+    /** Returns the least square to which any of the symmetries in SYMS,
+     *  a bit mask as returned by symmetries, or the identity carries
+     *  square #N of boards with geometry GEOM.  Moves to squares with
+     *  the same canonical square from a position with those symmetries
+     *  lead to equivalent positions. */
+    private static int canonicalMove(Geometry geom, int syms, int n) {
+        int result = n;
+        for (int s = 1; syms >>> s != 0; s += 1) {
+            if ((syms & (1 << s)) != 0) {
+                result = Math.min(result, geom.transform(s, n));
+            }
+        }
+        return result;
     }
 
     /** Returns heuristic value of board B for player P.
-     *  Higher is better for P. */
-    private int staticEval(Color p, Board b) {
-        return 0;
-        // FIXME
+     *  Higher is better for P.  Each square is worth SQUARE_VALUE to its
+     *  owner, less VULNERABLE_PENALTY if it neighbors a critical enemy
+     *  square (one holding as many spots as it has neighbors), which
+     *  could capture it on the next jump.  Squares not so threatened
+     *  are worth EDGE_VALUE more for each neighbor they lack, since
+     *  corners and edges jump soonest, and CRITICAL_VALUE more if they
+     *  are critical themselves.  Takes time proportional to the number
+     *  of squares, and allocates nothing. */
+    private static int staticEval(Color p, MutableBoard b) {
+        Geometry geom = b.geometry();
+        int me = p.ordinal();
+        int score = 0;
+        for (int n = 0; n < b.size() * b.size(); n += 1) {
+            int owner = b.owner(n);
+            if (owner == WHITE) {
+                continue;
+            }
+            int first = geom.firstNeighbor(n),
+                last = geom.firstNeighbor(n + 1);
+            boolean threatened = false;
+            for (int k = first; k < last && !threatened; k += 1) {
+                int m = geom.neighbor(k), other = b.owner(m);
+                threatened = other != owner && other != WHITE
+                    && b.spots(m) == geom.neighbors(m);
+            }
+            int value = SQUARE_VALUE;
+            if (threatened) {
+                value -= VULNERABLE_PENALTY;
+            } else {
+                value += (4 - (last - first)) * EDGE_VALUE;
+                if (b.spots(n) == last - first) {
+                    value += CRITICAL_VALUE;
+                }
+            }
+            score += owner == me ? value : -value;
+        }
+        return score;
     }
 
-}
+    /** Returns VALUE, found at a position searched to depth D, in the
+     *  form in which it is stored in _table.  Win values depend on the
+     *  depth at which they are found, so are stored relative to D. */
+    private static int toTable(int value, int d) {
+        if (value > WINNING_VALUE / 2) {
+            return value - d;
+        } else if (value < -WINNING_VALUE / 2) {
+            return value + d;
+        }
+        return value;
+    }
+
+    /** Returns the value at a position searched to depth D corresponding
+     *  to STORED, a value from _table.  The inverse of toTable. */
+    private static int fromTable(int stored, int d) {
+        if (stored > WINNING_VALUE / 2) {
+            return stored + d;
+        } else if (stored < -WINNING_VALUE / 2) {
+            return stored - d;
+        }
+        return stored;
+    }
+
+    /** One thread's share of a search: a private board to search on, and
+     *  statistics kept apart from other threads'. */
+    private class Worker {
+
+        /** Worker #INDEX for searching N x N boards. */
+        Worker(int N, int index) {
+            _board = Game.newBoard(N);
+            _index = index;
+            _offset = index * N * N / _workers.length;
+            _history = new int[N * N];
+            _killers = new int[MAX_PLY][2];
+            _moveLists = new int[MAX_PLY][];
+            _moveScores = new int[MAX_PLY][];
+        }
+
+        /** Prepare for a search from a new position, ordering moves
+         *  heuristically iff ORDERING.  Killer moves are forgotten, and
+         *  history scores decay. */
+        void newSearch(boolean ordering) {
+            _ordering = ordering;
+            for (int[] killers : _killers) {
+                killers[0] = killers[1] = TranspositionTable.NO_MOVE;
+            }
+            for (int n = 0; n < _history.length; n += 1) {
+                _history[n] >>= 1;
+            }
+        }
+
+        /** Returns my private board. */
+        MutableBoard board() {
+            return _board;
+        }
+
+        /** Make my private board a copy of B. */
+        void copy(Board b) {
+            _board.copy(b);
+        }
+
+        /** Search the position on my board for P with increasing depths up
+         *  to MAXDEPTH until the search is aborted, as a helper in lazy
+         *  mode.  Odd-numbered helpers start a level deeper than the
+         *  others, so that the helpers spread over two depths. */
+        void help(Color p, int maxDepth) {
+            for (int d = 1 + _index % 2; d <= maxDepth && !_aborted;
+                 d += 1) {
+                search(p, _board, d, -INFINITY, INFINITY);
+            }
+        }
+
+        /** Search moves from _order, starting from _nextRootMove, on B,
+         *  which holds the current position, for player P to depth D,
+         *  recording their values in _orderValues.  Searches each move
+         *  with a window just below _rootBest, which it raises as it
+         *  finds better moves, so that all moves that tie for best get
+         *  exact values.  Stops early if a value reaches CUTOFF. */
+        void searchRoot(Color p, MutableBoard b, int d, int cutoff) {
+            while (!_aborted) {
+                int best = _rootBest.get();
+                if (best >= cutoff) {
+                    return;
+                }
+                int i = _nextRootMove.getAndIncrement();
+                if (i >= _numOrdered) {
+                    return;
+                }
+                int value = evalMove(p, b, _order[i], d, best - 1, cutoff);
+                _orderValues[i] = value;
+                _rootBest.accumulateAndGet(value, Math::max);
+            }
+        }
+
+        /** Return the value for P of board B searched to depth D, as for
+         *  minmax, using alpha-beta pruning.  The result is exact if it
+         *  lies strictly between ALPHA and BETA; otherwise it is at most
+         *  ALPHA or at least BETA, respectively.  Results are cached in
+         *  _table under the key of B's image under tableSymmetry(B),
+         *  and the best move recorded there for B, if any, is tried
+         *  first.  Unless move ordering is off, the other moves follow
+         *  in order of orderScore, and of those that lead to positions
+         *  equivalent by symmetry, only one is tried.  Moves that score
+         *  the same are tried in order of square number, starting from a
+         *  square that depends on which Worker I am.  The contents of B
+         *  are invariant over this call. */
+        int search(Color p, MutableBoard b, int d, int alpha, int beta) {
+            _nodes += 1;
+            if ((_nodes & CLOCK_INTERVAL) == 0
+                && (System.nanoTime() > _deadline || _nodes > _nodeLimit)) {
+                _aborted = true;
+            }
+            if (_aborted) {
+                return 0;
+            }
+            Geometry geom = b.geometry();
+            int squares = b.size() * b.size();
+            int sym = tableSymmetry(b);
+            long key = sym == 0 ? b.hashKey() : b.hashKey(sym);
+            long entry = _table.probe(key);
+            _probes += 1;
+            int first = TranspositionTable.NO_MOVE;
+            if (entry != 0) {
+                _hits += 1;
+                int score = fromTable(TranspositionTable.score(entry), d);
+                int bound = TranspositionTable.bound(entry);
+                if (TranspositionTable.depth(entry) >= d
+                    && (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER
+                           && score <= alpha)) {
+                    return score;
+                }
+                first = TranspositionTable.move(entry);
+                if (first >= 0 && first < squares) {
+                    first = geom.untransform(sym, first);
+                }
+                if (first < 0 || first >= squares
+                    || !p.playableSquare(b.color(first))) {
+                    first = TranspositionTable.NO_MOVE;
+                }
+            }
+
+            int syms = _ordering && d > 0 ? symmetries(b) : 0;
+            int best = -INFINITY, bestMove = TranspositionTable.NO_MOVE;
+            if (first != TranspositionTable.NO_MOVE) {
+                first = canonicalMove(geom, syms, first);
+                best = evalMove(p, b, first, d, alpha, beta);
+                bestMove = first;
+            }
+            if (_moveLists[_ply] == null) {
+                _moveLists[_ply] = new int[squares];
+                _moveScores[_ply] = new int[squares];
+            }
+            int[] moves = _moveLists[_ply], scores = _moveScores[_ply];
+            int count = 0;
+            for (int k = 0; k < squares && best < beta; k += 1) {
+                int n = k + _offset < squares ? k + _offset
+                    : k + _offset - squares;
+                if (n != first && p.playableSquare(b.color(n))
+                    && canonicalMove(geom, syms, n) == n) {
+                    moves[count] = n;
+                    scores[count] = _ordering ? orderScore(p, b, n) : 0;
+                    count += 1;
+                }
+            }
+            for (int i = 0; i < count && best < beta; i += 1) {
+                int next = i;
+                for (int j = i + 1; j < count; j += 1) {
+                    if (scores[j] > scores[next]) {
+                        next = j;
+                    }
+                }
+                int n = moves[next];
+                moves[next] = moves[i];
+                scores[next] = scores[i];
+                int value =
+                    evalMove(p, b, n, d, Math.max(alpha, best), beta);
+                if (value > best) {
+                    best = value;
+                    bestMove = n;
+                }
+            }
+            if (_aborted) {
+                return 0;
+            }
+            if (best >= beta && _ordering) {
+                recordCutoff(p, b, bestMove, d);
+            }
+
+            int bound = best <= alpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER
+                : TranspositionTable.EXACT;
+            boolean proven =
+                best > WINNING_VALUE / 2 && bound != TranspositionTable.UPPER
+                || best < -WINNING_VALUE / 2
+                   && bound != TranspositionTable.LOWER;
+            if (_solving && !proven) {
+                return best;
+            }
+            _stores += 1;
+            if (bestMove != TranspositionTable.NO_MOVE) {
+                bestMove = geom.transform(sym, bestMove);
+            }
+            if (_table.store(key, proven ? PROVEN_DEPTH : d,
+                             toTable(best, d), bound, bestMove)) {
+                _collisions += 1;
+            }
+            return best;
+        }
+
+        /** Returns the priority of trying the move on square #N of B by
+         *  P, higher being earlier: first moves that make N jump, then
+         *  the killer moves at the current ply, and then others by their
+         *  history scores. */
+        int orderScore(Color p, MutableBoard b, int n) {
+            if (b.spots(n) == b.neighbors(n)) {
+                return EXPLODE_SCORE;
+            }
+            int[] killers = _killers[_ply];
+            if (n == killers[0]) {
+                return KILLER_SCORE;
+            } else if (n == killers[1]) {
+                return KILLER_SCORE - 1;
+            }
+            return _history[n];
+        }
+
+        /** Record that the move on square #N of B by P caused a cutoff
+         *  when searched to depth D, making it a killer move at this ply
+         *  (unless it is tried early anyway for jumping) and raising its
+         *  history score. */
+        void recordCutoff(Color p, MutableBoard b, int n, int d) {
+            if (b.spots(n) == b.neighbors(n)) {
+                return;
+            }
+            int[] killers = _killers[_ply];
+            if (killers[0] != n) {
+                killers[1] = killers[0];
+                killers[0] = n;
+            }
+            _history[n] += (d + 1) * (d + 1);
+            if (_history[n] > HISTORY_LIMIT) {
+                for (int m = 0; m < _history.length; m += 1) {
+                    _history[m] >>= 1;
+                }
+            }
+        }
+
+        /** Return the value for P of making the move on square #N in
+         *  board B and searching the result to depth D, as for search
+         *  with bounds ALPHA and BETA.  The contents of B are invariant
+         *  over this call. */
+        int evalMove(Color p, MutableBoard b, int n, int d, int alpha,
+                     int beta) {
+            int value;
+            b.addSpot(p, n);
+            if (b.getWinner() != null) {
+                value = WINNING_VALUE + d;
+            } else if (d == 0) {
+                value = _solving ? 0 : staticEval(p, b);
+            } else {
+                _ply += 1;
+                value = -search(p.opposite(), b, d - 1, -beta, -alpha);
+                _ply -= 1;
+            }
+            b.undo();
+            return value;
+        }
+
+        /** Returns the best move for B, the position at the root of my
+         *  last search, recorded in _table, or NO_MOVE if there is
+         *  none. */
+        int tableMove(MutableBoard b) {
+            int sym = tableSymmetry(b);
+            int move = TranspositionTable.move(_table.probe(b.hashKey(sym)));
+            if (move < 0 || move >= b.size() * b.size()) {
+                return TranspositionTable.NO_MOVE;
+            }
+            return b.geometry().untransform(sym, move);
+        }
+
+        /** Returns the symmetry (see Geometry.transform) whose image of
+         *  B, the position at the current ply, keys B's entry in _table.
+         *  For the first CANONICAL_PLIES plies, this is B's canonical
+         *  symmetry, so that positions equivalent by symmetry share one
+         *  entry.  Deeper, where positions are many and each search is
+         *  cheap, it is the identity, whose key B keeps up to date,
+         *  since finding the canonical form means hashing all eight
+         *  images of B.  Every move adds one spot to the board, so a
+         *  position occurs at only one ply of a search, and is keyed
+         *  the same way wherever it occurs. */
+        private int tableSymmetry(MutableBoard b) {
+            return _ply < CANONICAL_PLIES ? b.canonicalSymmetry() : 0;
+        }
 
+        /** Abandon my searches after N more positions. */
+        void limitNodes(long n) {
+            _nodeLimit = n == Long.MAX_VALUE ? n : _nodes + n;
+        }
 
+        /** Add my table statistics to _table's and my count of positions
+         *  searched to my game's, and reset them. */
+        void reportStats() {
+            _table.addStats(_probes, _hits, _stores, _collisions);
+            _probes = _hits = _stores = _collisions = 0;
+            getGame().countNodes(_nodes - _reportedNodes);
+            _reportedNodes = _nodes;
+        }
+
+        /** My private board. */
+        private final MutableBoard _board;
+
+        /** My index in _workers. */
+        private final int _index;
+
+        /** The square from which I start trying moves. */
+        private final int _offset;
+
+        /** Number of positions I have searched, and the value of _nodes
+         *  at my last report. */
+        private long _nodes, _reportedNodes;
+
+        /** Number of positions after which my searches are abandoned. */
+        private long _nodeLimit = Long.MAX_VALUE;
+
+        /** Number of moves between my board and the position at the root
+         *  of the current search. */
+        private int _ply;
+
+        /** True iff I order moves heuristically. */
+        private boolean _ordering;
+
+        /** Score for each square, raised each time a move there causes
+         *  a cutoff. */
+        private final int[] _history;
+
+        /** The two most recent moves to cause a cutoff at each ply, most
+         *  recent first. */
+        private final int[][] _killers;
+
+        /** Moves to try at each ply, and their scores from orderScore,
+         *  allocated as needed. */
+        private final int[][] _moveLists, _moveScores;
+
+        /** Number of table probes and hits, and of stores and those
+         *  that were collisions, since my last report. */
+        private long _probes, _hits, _stores, _collisions;
+    }
+
+    /** Value of a position won by the player to move; wins found at
+     *  greater remaining depth, and so sooner, are worth more. */
+    private static final int WINNING_VALUE = 1 << 24;
+
+    /** Weights used by staticEval. */
+    private static final int
+        SQUARE_VALUE = 8,
+        VULNERABLE_PENALTY = 6,
+        EDGE_VALUE = 2,
+        CRITICAL_VALUE = 3;
+
+    /** Ordinal of WHITE. */
+    private static final int WHITE = Color.WHITE.ordinal();
+
+    /** Move ordering scores of jumping moves and killer moves, both
+     *  exceeding any history score. */
+    private static final int
+        EXPLODE_SCORE = 1 << 30,
+        KILLER_SCORE = 1 << 29;
+
+    /** History score beyond which all history scores are halved. */
+    private static final int HISTORY_LIMIT = 1 << 28;
+
+    /** Greatest ply for which a search keeps move lists. */
+    private static final int MAX_PLY = Defaults.MAX_DEPTH + 2;
+
+    /** A value greater than that of any position. */
+    private static final int INFINITY = 1 << 25;
+
+    /** Depth recorded in _table for proved wins and losses, which hold
+     *  at any depth. */
+    private static final int PROVEN_DEPTH = 255;
+
+    /** Number of plies from the root of a search within which positions
+     *  are keyed in the transposition table by their canonical forms
+     *  (see Worker.tableSymmetry). */
+    private static final int CANONICAL_PLIES = 2;
+
+    /** Most positions the endgame solver searches before giving up. */
+    private static final long ENDGAME_NODES = 1 << 16;
+
+    /** One less than the number of nodes searched between checks of the
+     *  clock, which must be a power of two. */
+    private static final int CLOCK_INTERVAL = 1023;
+
+    /** My search depth when not limited by time, or -1 to use my
+     *  game's. */
+    private final int _depth;
+
+    /** Moves from the current position, and their values for ordering,
+     *  in order of decreasing value in the last search. */
+    private int[] _order, _orderValues;
+
+    /** Number of valid entries in _order. */
+    private int _numOrdered;
+
+    /** Index in _order of the next move for a Worker to search. */
+    private final AtomicInteger _nextRootMove = new AtomicInteger();
+
+    /** Best value found so far for a move from the current position. */
+    private final AtomicInteger _rootBest = new AtomicInteger();
+
+    /** Value of System.nanoTime() after which the current search is
+     *  abandoned. */
+    private volatile long _deadline;
+
+    /** True iff the current search has run out of time, or in lazy mode,
+     *  the helpers should stop. */
+    private volatile boolean _aborted;
+
+    /** True iff the endgame solver is searching, so that positions not
+     *  won or lost are worth 0 rather than their static values, and only
+     *  proved results are stored in _table. */
+    private volatile boolean _solving;
+
+    /** True iff the current search is in lazy mode. */
+    private boolean _lazy;
+
+    /** The table caching search results, shared by all AIs in my game
+     *  and kept from one move to the next. */
+    private TranspositionTable _table;
+
+    /** The Workers that carry out my searches; when there is just one,
+     *  it searches on _work itself. */
+    private Worker[] _workers;
+
+    /** My private copy of the game board, on which I search. */
+    private MutableBoard _work;
+
+    /** The best moves found by the last search. */
+    private final ArrayList<Integer> _moves = new ArrayList<>();
+
+}
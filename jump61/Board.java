@@ -1,6 +1,6 @@
 package jump61;
 
-import java.util.Formatter;
+import java.util.Arrays;
 
 /** Represents the state of a Jump61 game.  Squares are indexed either by
  *  row and column (between 1 and size()), or by square number, numbering
@@ -69,21 +69,17 @@ abstract class Board {
 
     /** Return the row number for square #N. */
     final int row(int n) {
-        return (n / size()) + 1;
+        return geometry().row(n);
     }
 
     /** Return the column number for square #N. */
     final int col(int n) {
-	if (n % size() == 0) {
-	return 1;
-	} else {
-    		return (n % size());
-	}
+        return geometry().col(n);
     }
 
     /** Return the square number of row R >= 1, column C >= 1. */
     final int sqNum(int r, int c) {
-        return (r - 1) * size() + c;
+        return (r - 1) * size() + c - 1;
     }
 
     /** Returns true iff it would currently be legal for PLAYER to add a spot
@@ -113,13 +109,12 @@ abstract class Board {
 
     /** Returns the winner of the current position, if the game is over,
      *  and otherwise null. */
-    final Color getWinner() {
-        if (color(0) == Color.WHITE) {
-            return null;
-        }
-        int total = numOfColor(color(0));
-        if (total == size() * size()) {
-            return color(0);
+    Color getWinner() {
+        int total = size() * size();
+        if (numOfColor(Color.RED) == total) {
+            return Color.RED;
+        } else if (numOfColor(Color.BLUE) == total) {
+            return Color.BLUE;
         }
         return null;
     }
@@ -127,13 +122,14 @@ abstract class Board {
     /** Return the number of squares of given COLOR. */
     abstract int numOfColor(Color color);
 
-    /** Add a spot from PLAYER at row R, column C.  Assumes
-     *  isLegal(PLAYER, R, C). */
+    /** Add a spot from PLAYER at row R, column C, and count it as a
+     *  move.  Assumes isLegal(PLAYER, R, C). */
     void addSpot(Color player, int r, int c) {
         unsupported("addSpot");
     }
 
-    /** Add a spot from PLAYER at square #N.  Assumes isLegal(PLAYER, N). */
+    /** Add a spot from PLAYER at square #N, and count it as a move.
+     *  Assumes isLegal(PLAYER, N). */
     void addSpot(Color player, int n) {
         unsupported("addSpot");
     }
@@ -163,28 +159,129 @@ abstract class Board {
         unsupported("undo");
     }
 
+    /** Returns the 64-bit Zobrist hash of my contents and side to move.
+     *  Equal positions on boards of the same size have equal keys. */
+    long hashKey() {
+        Geometry geom = geometry();
+        long key = numMoves() % 2 == 0 ? 0 : geom.sideKey();
+        for (int n = size() * size() - 1; n >= 0; n -= 1) {
+            key ^= geom.zobrist(n, color(n).ordinal(), spots(n));
+        }
+        return key;
+    }
+
+    /** Returns the Zobrist hash, as for hashKey(), of the position
+     *  obtained by applying symmetry #S of the board (see
+     *  Geometry.transform) to me.  hashKey(0) == hashKey(). */
+    long hashKey(int s) {
+        Geometry geom = geometry();
+        long key = numMoves() % 2 == 0 ? 0 : geom.sideKey();
+        for (int n = size() * size() - 1; n >= 0; n -= 1) {
+            key ^= geom.zobrist(geom.transform(s, n), color(n).ordinal(),
+                                spots(n));
+        }
+        return key;
+    }
+
+    /** Returns the symmetry of the board that carries me to my canonical
+     *  form: the one among my images under the eight symmetries with the
+     *  least hash key, choosing the least such symmetry in case of ties.
+     *  Positions that are rotations or reflections of each other have
+     *  the same canonical form.  Move #n on me corresponds to move
+     *  #geometry().transform(canonicalSymmetry(), n) on my canonical
+     *  form, and move #m on my canonical form to move
+     *  #geometry().untransform(canonicalSymmetry(), m) on me. */
+    int canonicalSymmetry() {
+        Geometry geom = geometry();
+        long[] keys = new long[Geometry.SYMMETRIES];
+        Arrays.fill(keys, numMoves() % 2 == 0 ? 0 : geom.sideKey());
+        for (int n = size() * size() - 1; n >= 0; n -= 1) {
+            Color owner = color(n);
+            if (owner != Color.WHITE) {
+                int spots = spots(n);
+                for (int s = 0; s < keys.length; s += 1) {
+                    keys[s] ^= geom.zobrist(geom.transform(s, n),
+                                            owner.ordinal(), spots);
+                }
+            }
+        }
+        int best = 0;
+        for (int s = 1; s < keys.length; s += 1) {
+            if (keys[s] < keys[best]) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    /** Returns the hash key of my canonical form (see canonicalSymmetry),
+     *  which is the same for all rotations and reflections of me. */
+    long canonicalKey() {
+        return hashKey(canonicalSymmetry());
+    }
+
+    /** Returns true iff OBJ is a Board of my size with the same contents
+     *  and number of moves as me. */
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Board)) {
+            return false;
+        }
+        Board other = (Board) obj;
+        if (other.size() != size() || other.numMoves() != numMoves()
+            || other.hashKey() != hashKey()) {
+            return false;
+        }
+        for (int n = size() * size() - 1; n >= 0; n -= 1) {
+            if (other.spots(n) != spots(n) || other.color(n) != color(n)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        long key = hashKey();
+        return (int) (key ^ (key >>> 32));
+    }
+
     /** Returns my dumped representation. */
     @Override
     public String toString() {
-        Formatter out = new Formatter();
-        int width = size();
-
-        out.format("===%n");
-        for (int i = 0; i < width; i++) {
-            out.format("   ");
-            for (int j = 0; j < width; j++) {
-                String color = color(i + 1, j + 1).toString();
-                if (color.equals("white")) {
-                    out.format(" --");
-                } else {
-                    int numSpots = spots(i + 1, j + 1);
-                    out.format(" %d%s", numSpots, color.charAt(0));
-                }
+        StringBuilder out = new StringBuilder(dumpLength());
+        dump(out);
+        return out.toString();
+    }
+
+    /** Append my dumped representation, as returned by toString, to OUT,
+     *  one square at a time, allocating nothing unless OUT must grow. */
+    void dump(StringBuilder out) {
+        int N = size();
+        out.append("===").append(NL);
+        for (int n = 0; n < N * N; n += 1) {
+            if (n % N == 0) {
+                out.append("   ");
+            }
+            Color color = color(n);
+            if (color == Color.WHITE) {
+                out.append(" --");
+            } else {
+                out.append(' ').append(spots(n))
+                    .append(GLYPHS[color.ordinal()]);
+            }
+            if (n % N == N - 1) {
+                out.append(NL);
             }
-            out.format("%n");
         }
-        out.format("===");
-        return out.toString();
+        out.append("===");
+    }
+
+    /** Returns the length of my dumped representation, provided that no
+     *  square holds more than 9 spots. */
+    int dumpLength() {
+        int N = size();
+        return 6 + NL_LENGTH + N * (3 + 3 * N + NL_LENGTH);
     }
 
     /** Returns an external rendition of me, suitable for
@@ -199,26 +296,17 @@ abstract class Board {
 
     /** Returns the number of neighbors of the square at row R, column C. */
     int neighbors(int r, int c) {
-        int result = 0;
-
-        if (r != 1) {
-            result += 1;
-        }
-        if (r != size()) {
-            result += 1;
-        }
-        if (c != 1) {
-            result +=1;
-        }
-        if (c != size()) {
-            result += 1;
-        }
-        return result;
+        return geometry().neighbors(sqNum(r, c));
     }
 
     /** Returns the number of neighbors of square #N. */
     int neighbors(int n) {
-        return neighbors(row(n), col(n));
+        return geometry().neighbors(n);
+    }
+
+    /** Returns the Geometry of boards of my size. */
+    Geometry geometry() {
+        return Geometry.of(size());
     }
 
     /** Indicate fatal error: OP is unsupported operation. */
@@ -227,6 +315,13 @@ abstract class Board {
         throw new UnsupportedOperationException(msg);
     }
 
+    /** An end of line on this system. */
+    private static final String NL = System.lineSeparator();
+
+    /** The character denoting the owner of an occupied square in dumps,
+     *  indexed by the ordinal of its Color. */
+    private static final char[] GLYPHS = { '-', 'r', 'b' };
+
     /** The length of an end of line on this system. */
     private static final int NL_LENGTH =
         System.getProperty("line.separator").length();
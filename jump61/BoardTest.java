@@ -6,6 +6,9 @@ import static jump61.Color.WHITE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Random;
+
 import org.junit.Test;
 
 /** Unit tests of Boards.
@@ -39,6 +42,23 @@ public class BoardTest {
         assertEquals("wrong count", 24, B.numOfColor(WHITE));
     }
 
+    @Test
+    public void testDump() {
+        Board B = new MutableBoard(3);
+        B.set(1, 1, 1, RED);
+        B.set(2, 3, 2, BLUE);
+        String dump = "===" + NL
+            + "    1r -- --" + NL
+            + "    -- -- 2b" + NL
+            + "    -- -- --" + NL
+            + "===";
+        assertEquals("bad dump", dump, B.toString());
+        assertEquals("bad dump length", dump.length(), B.dumpLength());
+        StringBuilder out = new StringBuilder("> ");
+        new ConstantBoard(B).dump(out);
+        assertEquals("bad appended dump", "> " + dump, out.toString());
+    }
+
     @Test
     public void testMove() {
         Board B = new MutableBoard(6);
@@ -62,6 +82,155 @@ public class BoardTest {
         checkBoard("#1U", B, 1, 1, 1, RED);
     }
 
+    @Test
+    public void testPackedMatchesArray() {
+        for (int N = 2; N <= PackedBoard.MAX_SIZE; N += 1) {
+            Board A = new MutableBoard(N);
+            Board P = new PackedBoard(N);
+            Random random = new Random(N);
+            while (A.getWinner() == null) {
+                Color player = A.whoseMove();
+                int n = randomMove(A, random);
+                A.addSpot(player, n);
+                P.addSpot(player, n);
+                assertEquals("dump differs", A.toString(), P.toString());
+                assertEquals("wrong count", A.numOfColor(RED),
+                             P.numOfColor(RED));
+                assertEquals("wrong count", A.numOfColor(WHITE),
+                             P.numOfColor(WHITE));
+            }
+            assertEquals("wrong winner", A.getWinner(), P.getWinner());
+            Board C = new PackedBoard(P);
+            assertEquals("bad copy", P.toString(), C.toString());
+        }
+    }
+
+    @Test
+    public void testUndoCascades() {
+        Board[] boards = { new MutableBoard(5), new PackedBoard(5) };
+        for (Board B : boards) {
+            Random random = new Random(5);
+            ArrayList<String> dumps = new ArrayList<>();
+            while (B.getWinner() == null) {
+                int n = randomMove(B, random);
+                dumps.add(B.toString());
+                B.addSpot(B.whoseMove(), n);
+            }
+            assertEquals("wrong move count", dumps.size(), B.numMoves());
+            for (int k = dumps.size() - 1; k >= 0; k -= 1) {
+                B.undo();
+                assertEquals("bad undo of move " + k, dumps.get(k),
+                             B.toString());
+            }
+            assertEquals("wrong move count", 0, B.numMoves());
+            assertEquals("wrong count", 25, B.numOfColor(WHITE));
+        }
+    }
+
+    @Test
+    public void testCounts() {
+        MutableBoard B = new MutableBoard(4);
+        B.set(1, 1, 2, RED);
+        B.set(1, 2, 1, BLUE);
+        B.addSpot(RED, 1, 1);
+        assertEquals("wrong count", 3, B.numOfColor(RED));
+        assertEquals("wrong count", 0, B.numOfColor(BLUE));
+        assertEquals("wrong count", 13, B.numOfColor(WHITE));
+        assertEquals("wrong spots", 4, B.numOfSpots(RED));
+        B.undo();
+        assertEquals("wrong count", 1, B.numOfColor(BLUE));
+        assertEquals("wrong spots", 2, B.numOfSpots(RED));
+        MutableBoard C = new MutableBoard(new ConstantBoard(B));
+        assertEquals("wrong count", 14, C.numOfColor(WHITE));
+        assertEquals("wrong spots", 1, C.numOfSpots(BLUE));
+    }
+
+    @Test
+    public void testHashKey() {
+        Board[] boards = { new MutableBoard(4), new PackedBoard(4) };
+        for (Board B : boards) {
+            Random random = new Random(4);
+            ArrayList<Long> keys = new ArrayList<>();
+            while (B.getWinner() == null) {
+                int n = randomMove(B, random);
+                keys.add(B.hashKey());
+                B.addSpot(B.whoseMove(), n);
+                Board C = new MutableBoard(new ConstantBoard(B));
+                assertEquals("bad incremental key", C.hashKey(),
+                             B.hashKey());
+                assertEquals("copies differ", C, B);
+            }
+            for (int k = keys.size() - 1; k >= 0; k -= 1) {
+                B.undo();
+                assertEquals("bad key after undo", (long) keys.get(k),
+                             B.hashKey());
+            }
+            assertEquals("empty board key", 0L, B.hashKey());
+        }
+    }
+
+    @Test
+    public void testTransforms() {
+        for (int N = 1; N <= 7; N += 1) {
+            Geometry G = Geometry.of(N);
+            for (int s = 0; s < Geometry.SYMMETRIES; s += 1) {
+                boolean[] hit = new boolean[N * N];
+                for (int n = 0; n < N * N; n += 1) {
+                    int m = G.transform(s, n);
+                    assertTrue("not one-to-one", !hit[m]);
+                    hit[m] = true;
+                    assertEquals("neighbors differ", G.neighbors(n),
+                                 G.neighbors(m));
+                    if (s == 0) {
+                        assertEquals("identity moves square", n, m);
+                    }
+                    for (int k = G.firstNeighbor(n);
+                         k < G.firstNeighbor(n + 1); k += 1) {
+                        int a = G.transform(s, G.neighbor(k));
+                        assertEquals("adjacency not kept", 1,
+                                     Math.abs(G.row(a) - G.row(m))
+                                     + Math.abs(G.col(a) - G.col(m)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCanonicalKey() {
+        for (int N = 2; N <= 9; N += 1) {
+            MutableBoard B = Game.newBoard(N);
+            MutableBoard C = new MutableBoard(N);
+            Random random = new Random(N);
+            for (int k = 0; k < 3 * N && B.getWinner() == null; k += 1) {
+                int n = randomMove(B, random);
+                B.addSpot(B.whoseMove(), n);
+                for (int s = 0; s < Geometry.SYMMETRIES; s += 1) {
+                    C.copy(B, s);
+                    assertEquals("bad incremental key", C.hashKey(),
+                                 B.hashKey(s));
+                    assertEquals("canonical keys differ", B.canonicalKey(),
+                                 C.canonicalKey());
+                    int m = B.geometry().transform(s, n);
+                    assertEquals("bad transformed square", B.spots(n),
+                                 C.spots(m));
+                    assertEquals("bad untransform", n,
+                                 B.geometry().untransform(s, m));
+                }
+            }
+        }
+    }
+
+    /** Returns a square, chosen with RANDOM, on which the player to
+     *  move on B may play. */
+    private static int randomMove(Board b, Random random) {
+        int n;
+        do {
+            n = random.nextInt(b.size() * b.size());
+        } while (!b.isLegal(b.whoseMove(), n));
+        return n;
+    }
+
     private void checkBoard(String msg, Board B, Object... contents) {
         for (int k = 0; k < contents.length; k += 4) {
             String M = String.format("%s at %d %d", msg, contents[k],
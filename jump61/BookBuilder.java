@@ -0,0 +1,115 @@
+package jump61;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Builds an opening book (see OpeningBook) offline by searching every
+ *  position reachable in fewer than a given number of moves from the
+ *  empty board, counting positions equivalent by symmetry once.  Usage:
+ *      java jump61.BookBuilder FILE [SIZE [PLIES [DEPTH [THREADS]]]]
+ *  writes to FILE a book for SIZE x SIZE boards (default
+ *  Defaults.BOARD_SIZE) holding the positions before each of the first
+ *  PLIES moves (default 3), each searched to depth DEPTH (default 6)
+ *  with THREADS threads (default 1).
+ *  @author Iskander Rakhmanberdiyev
+ */
+public class BookBuilder {
+
+    /** Build a book as directed by ARGS, as described above. */
+    public static void main(String... args) {
+        if (args.length < 1 || args.length > 5) {
+            System.err.println("Usage: java jump61.BookBuilder FILE "
+                               + "[SIZE [PLIES [DEPTH [THREADS]]]]");
+            System.exit(1);
+        }
+        int size = args.length > 1 ? Integer.parseInt(args[1])
+            : Defaults.BOARD_SIZE;
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 6;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+
+        StringWriter log = new StringWriter();
+        Game game =
+            new Game(new StringReader(String.format("seed 0%ndepth %d%n"
+                                                    + "threads %d%n",
+                                                    depth, threads)),
+                     log, log, log);
+        game.play();
+        AI ai = new AI(game, Color.RED);
+
+        Map<Long, Integer> book = new HashMap<>();
+        ArrayList<MutableBoard> positions = new ArrayList<>();
+        positions.add(Game.newBoard(size));
+        for (int ply = 0; ply < plies && !positions.isEmpty(); ply += 1) {
+            long start = System.nanoTime();
+            ArrayList<MutableBoard> next = new ArrayList<>();
+            for (MutableBoard position : positions) {
+                ai.setColor(position.whoseMove());
+                int move = ai.chooseMove(position);
+                int sym = position.canonicalSymmetry();
+                book.put(position.hashKey(sym),
+                         position.geometry().transform(sym, move));
+                if (ply + 1 < plies) {
+                    addSuccessors(position, book, next);
+                }
+            }
+            System.err.printf("ply %d: %d positions, %.1f s%n", ply,
+                              positions.size(),
+                              (System.nanoTime() - start) / 1e9);
+            positions = next;
+        }
+
+        long[] keys = new long[book.size()];
+        int k;
+        k = 0;
+        for (long key : book.keySet()) {
+            keys[k] = key;
+            k += 1;
+        }
+        Arrays.sort(keys);
+        int[] moves = new int[keys.length];
+        for (k = 0; k < keys.length; k += 1) {
+            moves[k] = book.get(keys[k]);
+        }
+        try {
+            OpeningBook.write(Paths.get(args[0]), size, keys, moves);
+        } catch (IOException excp) {
+            System.err.printf("could not write %s: %s%n", args[0],
+                              excp.getMessage());
+            System.exit(1);
+        }
+        System.err.printf("wrote %d positions to %s%n", keys.length,
+                          args[0]);
+        System.exit(0);
+    }
+
+    /** Add to NEXT a copy of each position that can follow POSITION in
+     *  one move, unless it is won or equivalent by symmetry to a position
+     *  in BOOK or NEXT. */
+    private static void addSuccessors(MutableBoard position,
+                                      Map<Long, Integer> book,
+                                      ArrayList<MutableBoard> next) {
+        Color player = position.whoseMove();
+        for (int n = 0; n < position.size() * position.size(); n += 1) {
+            if (!player.playableSquare(position.color(n))) {
+                continue;
+            }
+            position.addSpot(player, n);
+            long key = position.canonicalKey();
+            if (position.getWinner() == null && !book.containsKey(key)) {
+                book.put(key, OpeningBook.NO_MOVE);
+                MutableBoard successor = Game.newBoard(position.size());
+                successor.copy(position);
+                next.add(successor);
+            }
+            position.undo();
+        }
+    }
+
+}
@@ -37,6 +37,11 @@ class ConstantBoard extends Board {
         return _board.color(n);
     }
 
+    @Override
+    Geometry geometry() {
+        return _board.geometry();
+    }
+
     @Override
     int numMoves() {
         return _board.numMoves();
@@ -62,6 +67,16 @@ class ConstantBoard extends Board {
         return _board.numOfColor(color);
     }
 
+    @Override
+    long hashKey() {
+        return _board.hashKey();
+    }
+
+    @Override
+    long hashKey(int s) {
+        return _board.hashKey(s);
+    }
+
     @Override
     public boolean equals(Object obj) {
         return _board.equals(obj);
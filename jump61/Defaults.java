@@ -11,5 +11,51 @@ class Defaults {
     /** Default board size. */
     static final int BOARD_SIZE = 6;
 
-    // FIXME ?
+    /** Largest board size.  TranspositionTable records a move in 16 bits,
+     *  which limits boards to fewer than 65535 squares. */
+    static final int MAX_SIZE = 255;
+
+    /** True iff boards of at most PackedBoard.MAX_SIZE squares on a side
+     *  are represented as PackedBoards rather than array-based
+     *  MutableBoards. */
+    static final boolean PACKED_BOARDS = true;
+
+    /** Initial search depth used by AI players, where 0 looks only at the
+     *  AI's own next move. */
+    static final int AI_DEPTH = 3;
+
+    /** Search depth beyond which AI players do not go, even when time
+     *  remains. */
+    static final int MAX_DEPTH = 64;
+
+    /** Initial time in milliseconds that an AI player may spend
+     *  choosing a move, or 0 to search to exactly AI_DEPTH instead. */
+    static final int THINK_MILLIS = 0;
+
+    /** Initial number of games a MonteCarloPlayer plays out to choose
+     *  each move when thinking time is 0. */
+    static final int PLAYOUTS = 5000;
+
+    /** True iff AI players initially order moves heuristically and
+     *  skip moves equivalent by symmetry, rather than trying all moves
+     *  in order of square number. */
+    static final boolean MOVE_ORDERING = true;
+
+    /** Initial number of squares holding fewer spots than they have
+     *  neighbors at or below which AI players try to solve positions
+     *  exactly before searching heuristically. */
+    static final int ENDGAME_SQUARES = 12;
+
+    /** Initial number of threads with which AI players search. */
+    static final int THREADS = 1;
+
+    /** True iff AI players searching with several threads initially use
+     *  lazy SMP, in which every thread searches the whole position and
+     *  the threads share only their transposition table, rather than
+     *  sharing out the moves from the position. */
+    static final boolean LAZY_SMP = false;
+
+    /** Initial size limit, in megabytes, of the transposition table that
+     *  AI players use to cache search results. */
+    static final int TABLE_MEGABYTES = 16;
 }
@@ -2,11 +2,18 @@ package jump61;
 
 import static jump61.GameException.error;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.file.Paths;
 import java.util.Random;
-import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntSupplier;
 
 /** Main logic for playing (a) game(s) of Jump61.
  *  @author Iskander Rakhmanberdiyev
@@ -16,26 +23,58 @@ class Game {
     /** Name of resource containing help message. */
     private static final String HELP = "jump61/Help.txt";
 
+    /** Commands and other words that may appear in input, which
+     *  reading commands recognizes without creating new Strings. */
+    private static final String[] KEYWORDS = {
+        "#", "clear", "start", "quit", "auto", "manual", "size", "move",
+        "set", "dump", "seed", "help", "hash", "think", "threads", "depth",
+        "parallel", "book", "endgame", "ordering", "stats", "playouts",
+        "save", "load",
+        "red", "blue", "r", "b", "on", "off", "split", "lazy",
+        "ai", "mcts", "random",
+    };
+
     /** A new Game that takes command/move input from INPUT, prints
      *  normal output on OUTPUT, prints prompts for input on PROMPTS,
      *  and prints error messages on ERROROUTPUT. The Game now "owns"
      *  INPUT, PROMPTS, OUTPUT, and ERROROUTPUT, and is responsible for
      *  closing them when its play method returns. */
     Game(Reader input, Writer prompts, Writer output, Writer errorOutput) {
-        _board = new MutableBoard(Defaults.BOARD_SIZE);
-        _readonlyBoard = new ConstantBoard(_board);
-        _prompter = new PrintWriter(prompts, true);
-        _inp = new Scanner(input);
-        _inp.useDelimiter("(?m)\\p{Blank}*$|^\\p{Blank}*|\\p{Blank}+");
-        _out = new PrintWriter(output, true);
-        _err = new PrintWriter(errorOutput, true);
+        this(input, prompts, output, errorOutput, false);
+    }
+
+    /** A new Game as for Game(INPUT, PROMPTS, OUTPUT, ERROROUTPUT) that,
+     *  if BATCH, flushes its output only when it must wait for input and
+     *  when its play method returns, rather than after every line. */
+    Game(Reader input, Writer prompts, Writer output, Writer errorOutput,
+         boolean batch) {
+        setBoard(newBoard(Defaults.BOARD_SIZE));
+        _batch = batch;
+        _prompter = new PrintWriter(prompts, !batch);
+        _inp = new Tokenizer(input, KEYWORDS);
+        _out = new PrintWriter(output, !batch);
+        _err = new PrintWriter(errorOutput, !batch);
         _player1 = new HumanPlayer(this, Color.RED);
         _player2 = new HumanPlayer(this, Color.BLUE);
         _inGame = false;
     }
 
+    /** Return a new empty N x N board, using the representation selected
+     *  by Defaults.PACKED_BOARDS for boards small enough to pack. */
+    static MutableBoard newBoard(int n) {
+        if (packs(n)) {
+            return new PackedBoard(n);
+        }
+        return new MutableBoard(n);
+    }
+
+    /** Returns true iff newBoard(N) returns a PackedBoard. */
+    private static boolean packs(int n) {
+        return Defaults.PACKED_BOARDS && n <= PackedBoard.MAX_SIZE;
+    }
+
     /** Returns a read-only view of the game board. This board remains valid
-     *  throughout the session. */
+     *  until the next change of board size. */
     Board getBoard() {
         return _readonlyBoard;
     }
@@ -50,17 +89,27 @@ class Game {
 
         while (_inGame) {
             if (_playing) {
-                _player1.makeMove();
-                checkForWin();
-                _player2.makeMove();
+                if (_player1.getColor() == _board.whoseMove()) {
+                    _player1.makeMove();
+                } else {
+                    _player2.makeMove();
+                }
                 checkForWin();
             } else if (promptForNext()) {
                 readExecuteCommand();
             }
         }
+        flush();
         return 0;
     }
 
+    /** Send any buffered output to my writers. */
+    private void flush() {
+        _out.flush();
+        _err.flush();
+        _prompter.flush();
+    }
+
     /** Get a move from my input and place its row and column in
      *  MOVE.  Returns true if this is successful, false if game stops
      *  or ends first. */
@@ -84,12 +133,116 @@ class Game {
         
     }
 
+    /** Returns the transposition table used by AI players in this game,
+     *  creating it if needed. */
+    TranspositionTable table() {
+        if (_table == null) {
+            _table = new TranspositionTable(_tableMegabytes << 20);
+        }
+        return _table;
+    }
+
+    /** Returns the opening book from which AI players take moves, or
+     *  null if there is none. */
+    OpeningBook book() {
+        return _book;
+    }
+
+    /** Returns the number of threads an AI player may use to search. */
+    int threads() {
+        return _threads;
+    }
+
+    /** Returns the pool of threads in which AI players search, creating
+     *  it if needed.  Only used when threads() > 1. */
+    ForkJoinPool pool() {
+        if (_pool == null) {
+            _pool = new ForkJoinPool(_threads);
+        }
+        return _pool;
+    }
+
+    /** Make automated players search in the threads of POOL, using
+     *  TABLE as their transposition table, both shared with other games.
+     *  Each search is then limited to one thread, and the table's size
+     *  is fixed. */
+    void share(ExecutorService pool, TranspositionTable table) {
+        _searchPool = pool;
+        setThreads(1);
+        _table = table;
+    }
+
+    /** Returns the move chosen by SEARCH, an automated player's search
+     *  for its next move, run in my search pool if I have one, and
+     *  otherwise in the current thread. */
+    int search(IntSupplier search) {
+        if (_searchPool == null) {
+            return search.getAsInt();
+        }
+        Future<Integer> result = _searchPool.submit(search::getAsInt);
+        try {
+            return result.get();
+        } catch (InterruptedException | ExecutionException excp) {
+            throw new IllegalStateException("search failed", excp);
+        }
+    }
+
+    /** Returns the time in milliseconds that an AI player may spend
+     *  choosing a move, or 0 if it should search to a fixed depth. */
+    long thinkMillis() {
+        return _thinkMillis;
+    }
+
+    /** Returns the number of games a MonteCarloPlayer plays out per
+     *  move when thinkMillis() is 0. */
+    int playouts() {
+        return _playouts;
+    }
+
+    /** Returns the depth to which an AI player searches when
+     *  thinkMillis() is 0. */
+    int searchDepth() {
+        return _searchDepth;
+    }
+
+    /** Returns the number of squares not yet critical (holding as many
+     *  spots as they have neighbors) at or below which AI players first
+     *  try to solve a position exactly, or 0 if they never do. */
+    int endgameSquares() {
+        return _endgameSquares;
+    }
+
+    /** Returns true iff AI players order the moves they search
+     *  heuristically and skip moves equivalent to others by symmetry,
+     *  rather than trying every move in order of square number. */
+    boolean moveOrdering() {
+        return _moveOrdering;
+    }
+
+    /** Add N to the number of positions that AI players have
+     *  searched. */
+    synchronized void countNodes(long n) {
+        _nodes += n;
+    }
+
+    /** Returns the number of positions that AI players have searched. */
+    synchronized long searchNodes() {
+        return _nodes;
+    }
+
+    /** Returns true iff AI players searching with more than one thread
+     *  use lazy SMP: all threads search the whole position, sharing
+     *  only the transposition table, rather than dividing up the moves
+     *  from it. */
+    boolean lazySmp() {
+        return _lazySmp;
+    }
+
     /** Add a spot to R C, if legal to do so. */
     void makeMove(int r, int c) {
         Color player = _board.whoseMove();
         if (_board.isLegal(player, r, c)) {
             _board.addSpot(player, r, c);
-            _board.setMoves(_board.numMoves() + 1);
         }
     }
 
@@ -104,6 +257,13 @@ class Game {
         return _random.nextInt(n);
     }
 
+    /** Returns a new random-number generator seeded from mine, for a
+     *  player to use in one thread and for one move, so that its
+     *  results are determined by the seed command. */
+    SplittableRandom newRandom() {
+        return new SplittableRandom(_random.nextLong());
+    }
+
     /** Send a message to the user as determined by FORMAT and ARGS, which
      *  are interpreted as for String.format or PrintWriter.printf. */
     void message(String format, Object... args) {
@@ -127,12 +287,37 @@ class Game {
         _out.println(winner + " wins.");
     }
 
-    /** Make PLAYER an AI for subsequent moves. */
-    private void setAuto(Color player) {
+    /** Make PLAYER make all subsequent moves for its color. */
+    void setPlayer(Player player) {
+        if (_player1.getColor() == player.getColor()) {
+            _player1 = player;
+        } else {
+            _player2 = player;
+        }
+    }
+
+    /** Make PLAYER an automated player of the kind named KIND for
+     *  subsequent moves: "ai" for an AI, "mcts" for a MonteCarloPlayer,
+     *  or "random" for a RandomPlayer. */
+    private void setAuto(Color player, String kind) {
+        Player auto;
+        switch (kind) {
+        case "ai":
+            auto = new AI(this, player);
+            break;
+        case "mcts":
+            auto = new MonteCarloPlayer(this, player);
+            break;
+        case "random":
+            auto = new RandomPlayer(this, player);
+            break;
+        default:
+            throw error("unknown kind of player: '%s'", kind);
+        }
         if (_player1.getColor() == player) {
-            _player1 = new AI(this, player);
+            _player1 = auto;
         } else if (_player2.getColor() == player) {
-            _player2 = new AI(this, player);
+            _player2 = auto;
         }
     }
 
@@ -152,9 +337,41 @@ class Game {
         _board.clear(_board.size());
     }
 
-    /** Print the current board using standard board-dump format. */
+    /** Print the current board using standard board-dump format,
+     *  rendered into _dump without creating a String. */
     private void dump() {
-        _out.println(_board);
+        _dump.setLength(0);
+        _board.dump(_dump);
+        int length = _dump.length();
+        if (_dumpChars.length < length) {
+            _dumpChars = new char[length];
+        }
+        _dump.getChars(0, length, _dumpChars, 0);
+        _out.write(_dumpChars, 0, length);
+        _out.println();
+    }
+
+    /** Write the current position to the file named FILE as a
+     *  Snapshot. */
+    private void save(String file) {
+        try {
+            Snapshot.write(Paths.get(file), _board);
+        } catch (IOException excp) {
+            throw error("cannot save to %s: %s", file, excp.getMessage());
+        }
+    }
+
+    /** Stop any current game and set the board to the position saved in
+     *  the file named FILE by save. */
+    private void load(String file) {
+        Snapshot snapshot;
+        try {
+            snapshot = Snapshot.read(Paths.get(file));
+        } catch (IOException excp) {
+            throw error("cannot load %s: %s", file, excp.getMessage());
+        }
+        setSize(snapshot.size());
+        snapshot.restore(_board);
     }
 
     /** Print a help message. */
@@ -173,33 +390,155 @@ class Game {
         _random.setSeed(seed);
     }
 
+    /** Limit the AI players' transposition table to MEGABYTES megabytes,
+     *  discarding its contents.  MEGABYTES may be at most half the
+     *  largest heap that the Java runtime allows. */
+    private void setTableSize(int megabytes) {
+        long limit = Runtime.getRuntime().maxMemory() >> 21;
+        if (megabytes <= 0) {
+            throw error("table size must be positive");
+        } else if (megabytes > limit) {
+            throw error("table size must be at most %d megabytes", limit);
+        } else if (_searchPool != null) {
+            throw error("the search cache is shared here");
+        }
+        _tableMegabytes = megabytes;
+        _table = null;
+    }
+
+    /** Let AI players search with N threads. */
+    private void setThreads(int n) {
+        if (n <= 0) {
+            throw error("number of threads must be positive");
+        } else if (n > 1 && _searchPool != null) {
+            throw error("searches are limited to one thread here");
+        }
+        if (_pool != null) {
+            _pool.shutdown();
+            _pool = null;
+        }
+        _threads = n;
+    }
+
+    /** Allow AI players MILLIS milliseconds per move, or search to a
+     *  fixed depth if MILLIS is 0. */
+    private void setThinkTime(int millis) {
+        if (millis < 0) {
+            throw error("think time must not be negative");
+        }
+        _thinkMillis = millis;
+    }
+
+    /** Make MonteCarloPlayers play out N games per move when not
+     *  limited by time. */
+    private void setPlayouts(int n) {
+        if (n <= 0) {
+            throw error("number of playouts must be positive");
+        }
+        _playouts = n;
+    }
+
+    /** Make AI players search to depth DEPTH when not limited by time. */
+    private void setSearchDepth(int depth) {
+        if (depth < 0 || depth > Defaults.MAX_DEPTH) {
+            throw error("depth must be between 0 and %d", Defaults.MAX_DEPTH);
+        }
+        _searchDepth = depth;
+    }
+
+    /** Make AI players try to solve positions exactly when at most N
+     *  squares are not critical. */
+    private void setEndgameSquares(int n) {
+        if (n < 0) {
+            throw error("number of squares must not be negative");
+        }
+        _endgameSquares = n;
+    }
+
+    /** Make AI players take moves from the opening book in the file named
+     *  FILE, or from no book if FILE is "off". */
+    private void setBook(String file) {
+        if (file.equals("off")) {
+            _book = null;
+            return;
+        }
+        try {
+            _book = new OpeningBook(Paths.get(file));
+        } catch (IOException excp) {
+            throw error("cannot read opening book %s: %s", file,
+                        excp.getMessage());
+        }
+    }
+
+    /** Make AI players order their moves heuristically iff SETTING is
+     *  "on", or by square number iff it is "off". */
+    private void setMoveOrdering(String setting) {
+        switch (setting) {
+        case "on":
+            _moveOrdering = true;
+            break;
+        case "off":
+            _moveOrdering = false;
+            break;
+        default:
+            throw error("invalid arguments.");
+        }
+    }
+
+    /** Make AI players divide their searches among threads as MODE
+     *  directs: "split" to share out the moves from each position
+     *  searched, or "lazy" for lazy SMP. */
+    private void setParallelMode(String mode) {
+        switch (mode) {
+        case "split":
+            _lazySmp = false;
+            break;
+        case "lazy":
+            _lazySmp = true;
+            break;
+        default:
+            throw error("unknown parallel mode: '%s'", mode);
+        }
+    }
+
     /** Place SPOTS spots on square R:C and color the square red or
      *  blue depending on whether COLOR is "r" or "b".  If SPOTS is
      *  0, clears the square, ignoring COLOR.  SPOTS must be less than
      *  the number of neighbors of square R, C. */
     private void setSpots(int r, int c, int spots, String color) {
-        if (spots >= _board.neighbors(r, c)) {
-            GameException.error("ERROR");
+        if (!_board.exists(r, c)) {
+            throw error("square %d %d out of bounds", r, c);
+        } else if (spots >= _board.neighbors(r, c)) {
+            throw error("too many spots for square %d %d", r, c);
+        } else if (spots == 0) {
+            _board.set(r, c, 0, Color.WHITE);
+        } else if (color.equals("r")) {
+            _board.set(r, c, spots, Color.RED);
+        } else if (color.equals("b")) {
+            _board.set(r, c, spots, Color.BLUE);
         } else {
-            if (spots == 0) {
-                _board.set(r, c, Color.WHITE);
-            } else {
-                if (color.equals("r")) {
-                    _board.set(r, c, Color.RED);
-                } else if (color.equals("b")) {
-                    _board.set(r, c, Color.BLUE);
-                } else {
-                    GameException.error("Error: Incorrect color.");
-                }
-            }
+            throw error("Incorrect color.");
         }
     }
 
     /** Stop any current game and set the board to an empty N x N board
      *  with numMoves() == 0.  */
     private void setSize(int n) {
+        if (n < 2 || n > Defaults.MAX_SIZE) {
+            throw error("size must be between 2 and %d", Defaults.MAX_SIZE);
+        }
         _playing = false;
-        _board.clear(n);
+        if (packs(n) == _board instanceof PackedBoard) {
+            _board.clear(n);
+        } else {
+            setBoard(newBoard(n));
+        }
+    }
+
+    /** Make BOARD the board on which I record all moves. */
+    private void setBoard(MutableBoard board) {
+        _board = board;
+        _readonlyBoard = new ConstantBoard(board);
     }
 
     /** Begin accepting moves for game. If the game is won,
@@ -219,22 +558,52 @@ class Game {
         _move[1] = c;
     }
 
-    /** Returns a color (player) name from _inp: either RED or BLUE.
+    /** Returns the next argument of the current command from _inp.
      *  Throws an exception if not present. */
+    private String readArgument() {
+        if (!_inp.hasNext()) {
+            throw error("invalid arguments.");
+        }
+        return _inp.next();
+    }
+
+    /** Returns the next argument of the current command from _inp, which
+     *  must be an int.  Throws an exception if not present. */
+    private int readInt() {
+        if (!_inp.hasNextInt()) {
+            throw error("invalid arguments.");
+        }
+        return _inp.nextInt();
+    }
+
+    /** Returns a color (player) name from _inp: either RED or BLUE,
+     *  ignoring case.  Throws an exception if not present. */
     private Color readColor() {
-        return Color.parseColor(_inp.next("[rR][eE][dD]|[Bb][Ll][Uu][Ee]"));
+        String name = readArgument();
+        if (name.equalsIgnoreCase("red")) {
+            return Color.RED;
+        } else if (name.equalsIgnoreCase("blue")) {
+            return Color.BLUE;
+        }
+        throw error("invalid arguments.");
     }
 
-    /** Read and execute one command.  Leave the input at the start of
-     *  a line, if there is more input. */
+    /** Read and execute one command, reporting any error in it.  Leave
+     *  the input at the start of a line, if there is more input. */
     private void readExecuteCommand() {
-        if (_playing && _inp.hasNextInt()) {
-            saveMove(Integer.parseInt(_inp.next()), Integer.parseInt(_inp.next()));
-        } else {
-            executeCommand(_inp.next());
-        }
-        if (_inp.hasNextLine()) {
-        	_inp.nextLine();
+        try {
+            if (!_inp.hasNext()) {
+                return;
+            } else if (_playing && _inp.hasNextInt()) {
+                int r = _inp.nextInt();
+                saveMove(r, readInt());
+            } else {
+                executeCommand(_inp.next());
+            }
+        } catch (GameException excp) {
+            reportError("%s", excp.getMessage());
+        } finally {
+            _inp.skipLine();
         }
     }
 
@@ -242,8 +611,6 @@ class Game {
      *  on errors. */
     private void executeCommand(String cmnd) {
         switch (cmnd) {
-        case "\n": case "\r\n":
-            return;
         case "#":
             break;
         case "clear":
@@ -253,87 +620,103 @@ class Game {
             restartGame();
             break;
         case "quit":
-            _inGame = false;
-            System.exit(0);
+            _playing = _inGame = false;
             break;
         case "auto":
-            if (_inp.hasNext()) {
-                setAuto(Color.parseColor(_inp.next()));
-            } else {
-                throw error("Error: invalid arguments.");
-            }
+            Color color = readColor();
+            setAuto(color, _inp.hasNext() ? _inp.next() : "ai");
             break;
         case "manual":
-            if (_inp.hasNext()) {
-                setManual(Color.parseColor(_inp.next()));
-            } else {
-                throw error("Error: invalid arguments.");
-            }
+            setManual(readColor());
             break;
         case "size":
-            if (_inp.hasNext()) {
-                setSize(Integer.parseInt(_inp.next()));
-            } else {
-                throw error("Error: invalid arguments.");
-            }
+            setSize(readInt());
             break;
         case "move":
-            if (_inp.hasNext()) {
-                setMoveNumber(Integer.parseInt(_inp.next()));
+            if (_inp.hasNextInt()) {
+                setMoveNumber(_inp.nextInt());
             } else {
-                throw error("Error: invalid argument.");
+                throw error("invalid argument.");
             }
             break;
         case "set":
-            int row, column, spots;
-            row = column = spots = 0;
-            String color = "";
-            for (int i = 0; i < 4; i++) {
-                if (_inp.hasNext()) {
-                    if (i == 0) {
-                        row = Integer.parseInt(_inp.next());
-                    } else if (i == 1) {
-                        column = Integer.parseInt(_inp.next());
-                    } else if (i == 2) {
-                        spots = Integer.parseInt(_inp.next());
-                    } else if (i == 3) {
-                        color = _inp.next();
-                        setSpots(row, column, spots, color);
-                    }
-                } else {
-                    throw error("Error: invalid arguments.");
-                }
-            }
+            int row = readInt();
+            int column = readInt();
+            int spots = readInt();
+            setSpots(row, column, spots, readArgument());
             break;
         case "dump":
             dump();
             break;
+        case "save":
+            save(readArgument());
+            break;
+        case "load":
+            load(readArgument());
+            break;
         case "seed":
-            if (_inp.hasNext()) {
-                setSeed(Long.parseLong(_inp.next()));
+            if (_inp.hasNextLong()) {
+                setSeed(_inp.nextLong());
             } else {
-                throw error("Error: invalid arguments.");
+                throw error("invalid arguments.");
             }
             break;
         case "help":
             help();
             break;
+        case "hash":
+            setTableSize(readInt());
+            break;
+        case "think":
+            setThinkTime(readInt());
+            break;
+        case "threads":
+            setThreads(readInt());
+            break;
+        case "depth":
+            setSearchDepth(readInt());
+            break;
+        case "playouts":
+            setPlayouts(readInt());
+            break;
+        case "parallel":
+            setParallelMode(readArgument());
+            break;
+        case "book":
+            setBook(readArgument());
+            break;
+        case "endgame":
+            setEndgameSquares(readInt());
+            break;
+        case "ordering":
+            setMoveOrdering(readArgument());
+            break;
+        case "stats":
+            _out.printf("%d positions searched%n", searchNodes());
+            _out.println(table());
+            break;
         default:
             throw error("bad command: '%s'", cmnd);
         }
     }
 
     /** Print a prompt and wait for input. Returns true iff there is another
-     *  token. */
+     *  token.  At the end of input, stops any game and the session. */
     private boolean promptForNext() {
         if (_playing) {
             _out.print(_board.whoseMove().toString() + "> ");
         } else {
             _out.print("> ");
         }
-        _out.flush();
+        if (!_batch || !_inp.ready()) {
+            flush();
+        }
 
-        return _inp.hasNext();
+        if (!_inp.atEnd()) {
+            return true;
+        }
+        _playing = _inGame = false;
+        return false;
     }
 
     /** Send an error message to the user formed from arguments FORMAT
@@ -344,12 +727,14 @@ class Game {
         _err.println();
     }
 
+    /** True iff output is flushed only when waiting for input. */
+    private final boolean _batch;
+
     /** Writer on which to print prompts for input. */
     private final PrintWriter _prompter;
 
-    /** Scanner from current game input.  Initialized to return
-     *  newlines as tokens. */
-    private final Scanner _inp;
+    /** Tokens of current game input. */
+    private final Tokenizer _inp;
 
     /** Outlet for responses to the user. */
     private final PrintWriter _out;
@@ -358,13 +743,54 @@ class Game {
     private final PrintWriter _err;
 
     /** The board on which I record all moves. */
-    private final Board _board;
+    private MutableBoard _board;
     /** A readonly view of _board. */
-    private final Board _readonlyBoard;
+    private Board _readonlyBoard;
 
     /** A pseudo-random number generator used by players as needed. */
     private final Random _random = new Random();
 
+    /** Transposition table shared by AI players, or null if not yet
+     *  needed. */
+    private TranspositionTable _table;
+
+    /** Size limit of _table in megabytes. */
+    private long _tableMegabytes = Defaults.TABLE_MEGABYTES;
+
+    /** Number of threads AI players use to search. */
+    private int _threads = Defaults.THREADS;
+
+    /** Threads shared with other games in which automated players
+     *  search, or null if they search in the thread playing me. */
+    private ExecutorService _searchPool;
+
+    /** Threads for AI searches, or null if not yet needed. */
+    private ForkJoinPool _pool;
+
+    /** Time limit for AI moves, as for thinkMillis. */
+    private long _thinkMillis = Defaults.THINK_MILLIS;
+
+    /** Playouts per move for MonteCarloPlayers, as for playouts. */
+    private int _playouts = Defaults.PLAYOUTS;
+
+    /** Search depth for AI moves, as for searchDepth. */
+    private int _searchDepth = Defaults.AI_DEPTH;
+
+    /** Threshold for the endgame solver, as for endgameSquares. */
+    private int _endgameSquares = Defaults.ENDGAME_SQUARES;
+
+    /** Opening book for AI players, or null. */
+    private OpeningBook _book;
+
+    /** True iff AI players order moves, as for moveOrdering. */
+    private boolean _moveOrdering = Defaults.MOVE_ORDERING;
+
+    /** Number of positions AI players have searched. */
+    private long _nodes;
+
+    /** True iff AI players use lazy SMP, as for lazySmp. */
+    private boolean _lazySmp = Defaults.LAZY_SMP;
+
     /** True iff a game is currently in progress. */
     private boolean _playing;
 
@@ -377,6 +803,12 @@ class Game {
     /** Player 2. */
     private Player _player2;
 
+    /** Buffer into which the board is rendered for dumping. */
+    private final StringBuilder _dump = new StringBuilder();
+
+    /** The contents of _dump, copied out for writing. */
+    private char[] _dumpChars = new char[0];
+
    /** Used to return a move entered from the console.  Allocated
      *  here to avoid allocations. */
     private final int[] _move = new int[2];
@@ -0,0 +1,206 @@
+package jump61;
+
+import java.util.Arrays;
+
+/** The fixed layout of an N x N board: the row, column, and number of
+ *  neighbors of each square, and the square numbers of its neighbors.
+ *  Geometries are immutable, and all boards of the same size share one,
+ *  obtained from Geometry.of.
+ *  @author Iskander Rakhmanberdiyev
+ */
+final class Geometry {
+
+    /** Returns the Geometry of N x N boards, N >= 1. */
+    static Geometry of(int N) {
+        Geometry[] cache = _cache;
+        if (N < cache.length && cache[N] != null) {
+            return cache[N];
+        }
+        synchronized (Geometry.class) {
+            if (N >= _cache.length) {
+                _cache = Arrays.copyOf(_cache, N + 1);
+            }
+            if (_cache[N] == null) {
+                _cache[N] = new Geometry(N);
+            }
+            return _cache[N];
+        }
+    }
+
+    /** The Geometry of N x N boards. */
+    private Geometry(int N) {
+        _N = N;
+        _rows = new int[N * N];
+        _cols = new int[N * N];
+        _firstNeighbor = new int[N * N + 1];
+        int[] nbrs = new int[4 * N * N];
+        int k;
+        k = 0;
+        for (int n = 0; n < N * N; n += 1) {
+            int r = n / N + 1, c = n % N + 1;
+            _rows[n] = r;
+            _cols[n] = c;
+            _firstNeighbor[n] = k;
+            if (r > 1) {
+                nbrs[k++] = n - N;
+            }
+            if (r < N) {
+                nbrs[k++] = n + N;
+            }
+            if (c > 1) {
+                nbrs[k++] = n - 1;
+            }
+            if (c < N) {
+                nbrs[k++] = n + 1;
+            }
+        }
+        _firstNeighbor[N * N] = k;
+        _neighbors = Arrays.copyOf(nbrs, k);
+
+        _transforms = new int[SYMMETRIES * N * N];
+        _untransforms = new int[SYMMETRIES * N * N];
+        for (int s = 0; s < SYMMETRIES; s += 1) {
+            for (int n = 0; n < N * N; n += 1) {
+                int r = n / N, c = n % N;
+                if ((s & 1) != 0) {
+                    int t = r;
+                    r = c;
+                    c = t;
+                }
+                if ((s & 2) != 0) {
+                    r = N - 1 - r;
+                }
+                if ((s & 4) != 0) {
+                    c = N - 1 - c;
+                }
+                _transforms[s * N * N + n] = r * N + c;
+                _untransforms[s * N * N + r * N + c] = n;
+            }
+        }
+
+        long seed = ZOBRIST_SEED + N;
+        _zobrist = new long[N * N * 2 * ZOBRIST_SPOTS];
+        for (int i = 0; i < _zobrist.length; i += 1) {
+            seed += GOLDEN_GAMMA;
+            _zobrist[i] = mix(seed);
+        }
+        seed += GOLDEN_GAMMA;
+        _sideKey = mix(seed);
+    }
+
+    /** Returns the number of rows and of columns. */
+    int size() {
+        return _N;
+    }
+
+    /** Returns the row number of square #N. */
+    int row(int n) {
+        return _rows[n];
+    }
+
+    /** Returns the column number of square #N. */
+    int col(int n) {
+        return _cols[n];
+    }
+
+    /** Returns the number of neighbors of square #N, which is also the
+     *  most spots it can hold without jumping. */
+    int neighbors(int n) {
+        return _firstNeighbor[n + 1] - _firstNeighbor[n];
+    }
+
+    /** Returns the index in the neighbor list of the first neighbor of
+     *  square #N.  The neighbors of N are neighbor(K) for
+     *  firstNeighbor(N) <= K < firstNeighbor(N + 1). */
+    int firstNeighbor(int n) {
+        return _firstNeighbor[n];
+    }
+
+    /** Returns entry #K of the neighbor list. */
+    int neighbor(int k) {
+        return _neighbors[k];
+    }
+
+    /** Returns the square to which symmetry #S of the board carries
+     *  square #N, where 0 <= S < SYMMETRIES.  Symmetry #S reflects
+     *  about the main diagonal if bit 0 of S is set, and then reverses
+     *  the order of rows if bit 1 is set and of columns if bit 2 is set,
+     *  so that symmetry #0 is the identity. */
+    int transform(int s, int n) {
+        return _transforms[s * _N * _N + n];
+    }
+
+    /** Returns the square that symmetry #S carries to square #N, so
+     *  that untransform(S, transform(S, N)) == N. */
+    int untransform(int s, int n) {
+        return _untransforms[s * _N * _N + n];
+    }
+
+    /** Returns the Zobrist key of square #N holding SPOTS spots of the
+     *  color whose ordinal is OWNER.  The hash of a position is the
+     *  exclusive or of the keys of its squares, and of sideKey() if blue
+     *  is to move.  Keys are the same in every run of the program.
+     *  White squares have key 0, and spot counts at or beyond
+     *  ZOBRIST_SPOTS share a key. */
+    long zobrist(int n, int owner, int spots) {
+        if (owner == WHITE) {
+            return 0;
+        }
+        if (spots >= ZOBRIST_SPOTS) {
+            spots = ZOBRIST_SPOTS - 1;
+        }
+        return _zobrist[((2 * n + owner - 1) * ZOBRIST_SPOTS) + spots];
+    }
+
+    /** Returns the Zobrist key for blue to move. */
+    long sideKey() {
+        return _sideKey;
+    }
+
+    /** Returns the SplitMix64 output function applied to Z. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Number of symmetries of a square board: its rotations and
+     *  reflections, including the identity. */
+    static final int SYMMETRIES = 8;
+
+    /** Ordinal of WHITE. */
+    private static final int WHITE = Color.WHITE.ordinal();
+
+    /** Number of distinct spot counts with their own Zobrist keys. */
+    private static final int ZOBRIST_SPOTS = 16;
+
+    /** Fixed seed from which Zobrist keys are generated. */
+    private static final long ZOBRIST_SEED = 0x6a756d703631L;
+
+    /** Increment of the SplitMix64 generator. */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /** Geometries created so far, indexed by size. */
+    private static volatile Geometry[] _cache = new Geometry[16];
+
+    /** Squares along one edge. */
+    private final int _N;
+
+    /** Row and column numbers of each square. */
+    private final int[] _rows, _cols;
+
+    /** Neighbors of square #n are _neighbors[_firstNeighbor[n]] through
+     *  _neighbors[_firstNeighbor[n + 1] - 1]. */
+    private final int[] _firstNeighbor, _neighbors;
+
+    /** _transforms[s * N * N + n] is transform(s, n), and
+     *  _untransforms[s * N * N + n] is untransform(s, n). */
+    private final int[] _transforms, _untransforms;
+
+    /** Zobrist keys for each square, player color, and spot count. */
+    private final long[] _zobrist;
+
+    /** Zobrist key for the side to move. */
+    private final long _sideKey;
+
+}
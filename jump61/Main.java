@@ -7,6 +7,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.Writer;
+import java.util.Arrays;
 
 /** The jump61 game.
  * @author
@@ -17,15 +18,41 @@ public class Main {
     static final String USAGE = "jump61/Usage.txt";
 
     /** Play jump61.  ARGS0 may consist of the single string
-     *  '--display' to indicate that the game is played using a GUI. Prints
+     *  '--display' to indicate that the game is played using a GUI, or
+     *  '--batch' to flush output only when waiting for input, or of
+     *  '--tournament' followed by the arguments to Tournament.run, to
+     *  play a tournament between AIs without user input, or of '--serve'
+     *  and a port number, to serve games over TCP (see Server).  Prints
      *  a usage message if the arguments are wrong. */
     public static void main(String[] args0) {
+        if (args0.length > 0 && args0[0].equals("--tournament")) {
+            try {
+                Tournament.run(Arrays.copyOfRange(args0, 1, args0.length));
+            } catch (IllegalArgumentException excp) {
+                usage();
+                System.exit(1);
+            }
+            System.exit(0);
+        } else if (args0.length == 2 && args0[0].equals("--serve")) {
+            try {
+                Server.run(Integer.parseInt(args0[1]));
+            } catch (IllegalArgumentException excp) {
+                usage();
+                System.exit(1);
+            } catch (IOException excp) {
+                System.err.printf("cannot serve: %s%n", excp.getMessage());
+                System.exit(1);
+            }
+        }
+        boolean batch = false;
         if (args0.length > 1) {
             usage();
             System.exit(1);
         } else if (args0.length == 1) {
             if (args0[0].equals("--display")) {
                 // TODO Use a GUI
+            } else if (args0[0].equals("--batch")) {
+                batch = true;
             } else {
                 usage();
                 System.exit(1);
@@ -35,7 +62,7 @@ public class Main {
         Writer output = new OutputStreamWriter(System.out);
         Game game = new Game(new InputStreamReader(System.in),
                              output, output,
-                             new OutputStreamWriter(System.err));
+                             new OutputStreamWriter(System.err), batch);
         System.exit(game.play());
     }
 
@@ -0,0 +1,435 @@
+package jump61;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+
+/** An automated Player that chooses moves by Monte Carlo tree search.
+ *  Each playout descends a tree of positions from the current one,
+ *  choosing among the moves from each position by UCT (upper confidence
+ *  bounds applied to trees), adds the moves from the position it stops
+ *  at to the tree, and finishes the game from there with random moves
+ *  (see Playout).
+ *  The winner is credited to every position on the way.  After as many
+ *  playouts as its game allows, or as much time, the player makes the
+ *  move tried most often.  The tree is kept in parallel arrays (see
+ *  Tree), and the part of it below the position after the opponent's
+ *  reply is kept for the next move.  When its game allows more than one
+ *  thread, each thread grows its own tree from the same position, and
+ *  the move tried most often over all the trees is made.  Each thread
+ *  has its own random-number generator, split from one drawn from the
+ *  game's for each move, so that with a fixed number of playouts, the
+ *  moves chosen depend only on the game's seed.
+ *  @author Iskander Rakhmanberdiyev
+ */
+class MonteCarloPlayer extends Player {
+
+    /** A new player of GAME initially playing COLOR that chooses
+     *  moves automatically. */
+    MonteCarloPlayer(Game game, Color color) {
+        super(game, color);
+    }
+
+    @Override
+    void makeMove() {
+        Board board = getBoard();
+        int move = getGame().search(() -> chooseMove(board));
+        getGame().message("%s moves %d %d.%n",
+                          getColor().toCapitalizedString(),
+                          board.row(move), board.col(move));
+        getGame().makeMove(move);
+    }
+
+    /** Returns the number of the square on which I would add a spot in
+     *  the position on BOARD, where it is my turn and the game is not
+     *  yet won. */
+    int chooseMove(Board board) {
+        int threads = getGame().threads();
+        if (_searchers == null || _searchers.length != threads) {
+            _searchers = new Searcher[threads];
+            for (int i = 0; i < threads; i += 1) {
+                _searchers[i] = new Searcher();
+            }
+        }
+        long budget = getGame().thinkMillis();
+        long deadline = budget > 0 ? System.nanoTime() + budget * 1000000
+            : Long.MAX_VALUE;
+        int playouts = budget > 0 ? Integer.MAX_VALUE
+            : (getGame().playouts() + threads - 1) / threads;
+        SplittableRandom random = getGame().newRandom();
+        for (Searcher searcher : _searchers) {
+            searcher.setRoot(board);
+            searcher.setRandom(random.split());
+        }
+        if (threads == 1) {
+            _searchers[0].search(playouts, deadline);
+        } else {
+            ArrayList<Callable<Void>> tasks = new ArrayList<>();
+            for (Searcher searcher : _searchers) {
+                tasks.add(() -> {
+                    searcher.search(playouts, deadline);
+                    return null;
+                });
+            }
+            getGame().pool().invokeAll(tasks);
+        }
+
+        int squares = board.size() * board.size();
+        if (_visits == null || _visits.length != squares) {
+            _visits = new long[squares];
+        }
+        Arrays.fill(_visits, 0);
+        for (Searcher searcher : _searchers) {
+            searcher.addVisits(_visits);
+        }
+        int best = -1;
+        for (int n = 0; n < squares; n += 1) {
+            if (getColor().playableSquare(board.color(n))
+                && (best < 0 || _visits[n] > _visits[best])) {
+                best = n;
+            }
+        }
+        return best;
+    }
+
+    /** Returns the number of playouts that my first thread's last search
+     *  made through the position reached from its root by moves on the
+     *  squares in PATH, or 0 if that position is not in its tree.  This
+     *  is a hook for MonteCarloPlayerTest. */
+    int visits(int... path) {
+        Tree tree = _searchers[0]._tree;
+        int node = Tree.ROOT;
+        for (int move : path) {
+            int first = tree._first[node], c;
+            for (c = first; c < first + tree._children[node]; c += 1) {
+                if (tree._move[c] == move) {
+                    break;
+                }
+            }
+            if (c == first + tree._children[node]) {
+                return 0;
+            }
+            node = c;
+        }
+        return tree._visits[node];
+    }
+
+    /** One thread's share of the search: a tree and the boards on which
+     *  it plays out games. */
+    private class Searcher {
+
+        /** Make the current position that on BOARD, keeping the part of
+         *  my tree below it if it is the position at the root or two
+         *  moves below, and otherwise starting a new tree. */
+        void setRoot(Board board) {
+            boolean sameSize = _root != null && _root.size() == board.size();
+            if (!sameSize) {
+                _root = Game.newBoard(board.size());
+                _board = Game.newBoard(board.size());
+            }
+            _root.copy(board);
+            long key = _root.hashKey();
+            int node = sameSize ? _tree.find(key) : NONE;
+            if (node == NONE) {
+                _tree.reset(key);
+            } else if (node != Tree.ROOT) {
+                _spare.copySubtree(_tree, node);
+                Tree tree = _tree;
+                _tree = _spare;
+                _spare = tree;
+            }
+        }
+
+        /** Make RANDOM the source of my random moves. */
+        void setRandom(SplittableRandom random) {
+            _playout.setRandom(random);
+        }
+
+        /** Carry out LIMIT playouts, or as many as possible before
+         *  System.nanoTime() passes DEADLINE, but at least one. */
+        void search(int limit, long deadline) {
+            for (int k = 0; k < limit; k += 1) {
+                if (k > 0 && deadline != Long.MAX_VALUE
+                    && System.nanoTime() > deadline) {
+                    break;
+                }
+                playout();
+            }
+        }
+
+        /** Add the number of times I have tried each move from the
+         *  current position to the element of VISITS for its square. */
+        void addVisits(long[] visits) {
+            Tree tree = _tree;
+            int first = tree._first[Tree.ROOT];
+            for (int c = first; c < first + tree._children[Tree.ROOT];
+                 c += 1) {
+                visits[tree._move[c]] += tree._visits[c];
+            }
+        }
+
+        /** Descend my tree from the root, extend it, play a random game
+         *  from where it stops, and credit the result to the nodes
+         *  descended through. */
+        private void playout() {
+            Tree tree = _tree;
+            MutableBoard b = _board;
+            b.copy(_root);
+            int node = Tree.ROOT, length = 0;
+            Color winner = null;
+            while (true) {
+                push(node, length);
+                length += 1;
+                if (winner != null) {
+                    break;
+                }
+                if (tree._children[node] == 0
+                    && (node != Tree.ROOT && tree._visits[node] == 0
+                        || !tree.expand(node, b))) {
+                    _playout.load(b);
+                    winner = _playout.play();
+                    break;
+                }
+                node = tree.select(node);
+                b.addSpot(b.whoseMove(), tree._move[node]);
+                if (tree._visits[node] == 0) {
+                    tree._keys[node] = b.hashKey();
+                }
+                winner = b.getWinner();
+            }
+            Color mover = _root.whoseMove().opposite();
+            for (int i = 0; i < length; i += 1) {
+                node = _path[i];
+                tree._visits[node] += 1;
+                if (mover == winner) {
+                    tree._wins[node] += 1;
+                }
+                mover = mover.opposite();
+            }
+        }
+
+        /** Record NODE as the Kth node on the path of the current
+         *  playout. */
+        private void push(int node, int k) {
+            if (k == _path.length) {
+                _path = Arrays.copyOf(_path, 2 * k);
+            }
+            _path[k] = node;
+        }
+
+        /** The current position, or null before the first search. */
+        private MutableBoard _root;
+
+        /** Board on which I descend my tree, of the same size and kind
+         *  as _root. */
+        private MutableBoard _board;
+
+        /** Finishes games from where descents of my tree stop. */
+        private final Playout _playout = new Playout();
+
+        /** The tree of positions searched from _root. */
+        private Tree _tree = new Tree();
+
+        /** A tree into which to copy part of _tree when reusing it. */
+        private Tree _spare = new Tree();
+
+        /** Nodes descended through by the current playout. */
+        private int[] _path = new int[64];
+    }
+
+    /** A tree of positions and the results of playouts through them.
+     *  Node #0 is the root, and the children of each node, one for each
+     *  legal move from its position, are consecutive.  Each field is an
+     *  array indexed by node number. */
+    private static class Tree {
+
+        /** Number of the root node. */
+        static final int ROOT = 0;
+
+        /** An empty tree. */
+        Tree() {
+            allocate(INITIAL_NODES);
+        }
+
+        /** Make me a tree with just a root, whose position has hash key
+         *  KEY. */
+        void reset(long key) {
+            _size = 0;
+            add(NONE);
+            _keys[ROOT] = key;
+        }
+
+        /** Returns the node for the position with hash key KEY: the root
+         *  or a node two moves below it, or NONE if there is none. */
+        int find(long key) {
+            if (_size == 0) {
+                return NONE;
+            } else if (_keys[ROOT] == key) {
+                return ROOT;
+            }
+            int first = _first[ROOT];
+            for (int c = first; c < first + _children[ROOT]; c += 1) {
+                for (int g = _first[c]; g < _first[c] + _children[c];
+                     g += 1) {
+                    if (_visits[g] > 0 && _keys[g] == key) {
+                        return g;
+                    }
+                }
+            }
+            return NONE;
+        }
+
+        /** Make me a copy of the subtree of FROM rooted at node ROOT,
+         *  with its nodes renumbered in breadth-first order. */
+        void copySubtree(Tree from, int root) {
+            if (_move.length < from._size) {
+                allocate(from._size);
+            }
+            _size = 0;
+            copyNode(from, root);
+            for (int i = 0; i < _size; i += 1) {
+                int old = _source[i], count = from._children[old];
+                if (count > 0) {
+                    _first[i] = _size;
+                    _children[i] = count;
+                    for (int c = from._first[old]; c < from._first[old] + count;
+                         c += 1) {
+                        copyNode(from, c);
+                    }
+                }
+            }
+        }
+
+        /** Add children to NODE, an unexpanded node with position B, for
+         *  all legal moves, returning true if there is room and false
+         *  (adding nothing) if not. */
+        boolean expand(int node, MutableBoard b) {
+            Color p = b.whoseMove();
+            int squares = b.size() * b.size();
+            int count = 0;
+            for (int n = 0; n < squares; n += 1) {
+                if (p.playableSquare(b.color(n))) {
+                    count += 1;
+                }
+            }
+            if (count == 0 || _size + count > MAX_NODES) {
+                return false;
+            }
+            _first[node] = _size;
+            _children[node] = count;
+            for (int n = 0; n < squares; n += 1) {
+                if (p.playableSquare(b.color(n))) {
+                    add(n);
+                }
+            }
+            return true;
+        }
+
+        /** Returns the child of NODE, which must have children, to try
+         *  next: the first not yet tried, if any, and otherwise the one
+         *  with the greatest UCT score, its share of wins plus an
+         *  exploration term that favors children tried less often. */
+        int select(int node) {
+            int first = _first[node], last = first + _children[node];
+            double log = Math.log(_visits[node]);
+            int best = first;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int c = first; c < last; c += 1) {
+                if (_visits[c] == 0) {
+                    return c;
+                }
+                double score = (double) _wins[c] / _visits[c]
+                    + EXPLORATION * Math.sqrt(log / _visits[c]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = c;
+                }
+            }
+            return best;
+        }
+
+        /** Add a copy of node #OLD of FROM, without its children. */
+        private void copyNode(Tree from, int old) {
+            int node = add(from._move[old]);
+            _visits[node] = from._visits[old];
+            _wins[node] = from._wins[old];
+            _keys[node] = from._keys[old];
+            _source[node] = old;
+        }
+
+        /** Add a new childless node for the move on square #MOVE and
+         *  return its number. */
+        private int add(int move) {
+            if (_size == _move.length) {
+                allocate(Math.min(2 * _size, MAX_NODES));
+            }
+            int node = _size;
+            _size += 1;
+            _move[node] = move;
+            _first[node] = _children[node] = 0;
+            _visits[node] = _wins[node] = 0;
+            _keys[node] = 0;
+            return node;
+        }
+
+        /** Make room for N nodes, keeping my current ones. */
+        private void allocate(int n) {
+            _move = grow(_move, n);
+            _first = grow(_first, n);
+            _children = grow(_children, n);
+            _visits = grow(_visits, n);
+            _wins = grow(_wins, n);
+            _source = grow(_source, n);
+            _keys = _keys == null ? new long[n] : Arrays.copyOf(_keys, n);
+        }
+
+        /** Returns A, or a new array if A is null, lengthened to N. */
+        private static int[] grow(int[] a, int n) {
+            return a == null ? new int[n] : Arrays.copyOf(a, n);
+        }
+
+        /** Number of nodes in use. */
+        private int _size;
+
+        /** The square of the move leading to each node from its
+         *  parent. */
+        private int[] _move;
+
+        /** The first child of each node, and the number of children,
+         *  which is 0 for nodes not yet expanded. */
+        private int[] _first, _children;
+
+        /** The number of playouts through each node, and the number of
+         *  those won by the player who moved into it. */
+        private int[] _visits, _wins;
+
+        /** The hash key of each node's position, or 0 for nodes whose
+         *  position has not been reached. */
+        private long[] _keys;
+
+        /** For copySubtree, the number in the tree copied of each
+         *  node. */
+        private int[] _source;
+    }
+
+    /** Number of nodes for which a Tree initially has room. */
+    private static final int INITIAL_NODES = 1 << 10;
+
+    /** Most nodes in a Tree. */
+    private static final int MAX_NODES = 1 << 20;
+
+    /** Weight of the exploration term in UCT scores. */
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    /** Node number denoting no node. */
+    private static final int NONE = -1;
+
+    /** The Searchers that carry out my searches, one per thread. */
+    private Searcher[] _searchers;
+
+    /** Playouts through each move from the current position, summed
+     *  over all Searchers. */
+    private long[] _visits;
+
+}
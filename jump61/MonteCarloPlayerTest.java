@@ -0,0 +1,116 @@
+package jump61;
+
+import static jump61.Color.BLUE;
+import static jump61.Color.RED;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.io.Writer;
+
+import org.junit.Test;
+
+/** Unit tests of MonteCarloPlayers.
+ *  @author Iskander Rakhmanberdiyev
+ */
+public class MonteCarloPlayerTest {
+
+    /** Red wins at once by playing square 3.  Playing square 0 or 2
+     *  instead lets blue win with its next move. */
+    @Test
+    public void testTakesWin() {
+        MutableBoard B = new MutableBoard(2);
+        B.set(0, 1, RED);
+        B.set(1, 2, BLUE);
+        B.set(2, 1, RED);
+        B.set(3, 2, RED);
+        B.setMoves(4);
+        for (long seed = 0; seed < 10; seed += 1) {
+            MonteCarloPlayer P =
+                new MonteCarloPlayer(game(seed, 100, 1), RED);
+            assertEquals("winning move missed", 3, P.chooseMove(B));
+        }
+    }
+
+    @Test
+    public void testReproducible() {
+        for (int threads = 1; threads <= 2; threads += 1) {
+            assertArrayEquals("moves depend on more than the seed",
+                              moves(5, threads), moves(5, threads));
+        }
+    }
+
+    @Test
+    public void testTreeReuse() {
+        int playouts = 2000;
+        MonteCarloPlayer P = new MonteCarloPlayer(game(3, playouts, 1), RED);
+        MutableBoard B = new MutableBoard(3);
+        int move = P.chooseMove(B);
+        int reply = 0;
+        for (int n = 1; n < 9; n += 1) {
+            if (P.visits(move, n) > P.visits(move, reply)) {
+                reply = n;
+            }
+        }
+        int visits = P.visits(move, reply);
+        assertTrue("subtree too small to test", visits > 9);
+        int[] replies = new int[9];
+        for (int n = 0; n < 9; n += 1) {
+            replies[n] = P.visits(move, reply, n);
+        }
+
+        B.addSpot(RED, move);
+        B.addSpot(BLUE, reply);
+        P.chooseMove(B);
+        assertEquals("subtree not reused", visits + playouts, P.visits());
+        for (int n = 0; n < 9; n += 1) {
+            assertTrue("visits to a move not kept", P.visits(n) >= replies[n]);
+        }
+    }
+
+    /** The player searches boards too large to pack (see PackedBoard),
+     *  and boards of different sizes one after another. */
+    @Test
+    public void testBoardSizes() {
+        MonteCarloPlayer P = new MonteCarloPlayer(game(7, 200, 2), RED);
+        for (int size : new int[] { 4, 10, 4 }) {
+            MutableBoard B = new MutableBoard(size);
+            B.addSpot(RED, 0);
+            B.addSpot(BLUE, size * size - 1);
+            int move = P.chooseMove(B);
+            assertTrue("illegal move on " + size + "x" + size + " board",
+                       move >= 0 && move < size * size
+                       && RED.playableSquare(B.color(move)));
+        }
+    }
+
+    /** Returns the first moves chosen in a game between two
+     *  MonteCarloPlayers on a 4x4 board, as set up by game(SEED, 500,
+     *  THREADS). */
+    private static int[] moves(long seed, int threads) {
+        Game game = game(seed, 500, threads);
+        MonteCarloPlayer red = new MonteCarloPlayer(game, RED),
+            blue = new MonteCarloPlayer(game, BLUE);
+        MutableBoard B = new MutableBoard(4);
+        int[] moves = new int[12];
+        for (int k = 0; k < moves.length && B.getWinner() == null; k += 1) {
+            MonteCarloPlayer player = B.whoseMove() == RED ? red : blue;
+            moves[k] = player.chooseMove(B);
+            B.addSpot(B.whoseMove(), moves[k]);
+        }
+        return moves;
+    }
+
+    /** Returns a Game seeded with SEED whose MonteCarloPlayers play out
+     *  PLAYOUTS games per move using THREADS threads. */
+    private static Game game(long seed, int playouts, int threads) {
+        String setup = String.format("seed %d%nplayouts %d%nthreads %d%n",
+                                     seed, playouts, threads);
+        Game game = new Game(new StringReader(setup), Writer.nullWriter(),
+                             Writer.nullWriter(), Writer.nullWriter());
+        game.play();
+        return game;
+    }
+
+}
@@ -1,99 +1,222 @@
 package jump61;
 
-import java.util.ArrayList;
-/** MutableBoard is the current board being used
+import java.util.Arrays;
+
+/** MutableBoard is the current board being used.  The contents of each
+ *  square are kept in flat primitive arrays indexed by square number, so
+ *  that reading, copying, and modifying a board involves no per-square
+ *  objects.  Subclasses may substitute another representation by
+ *  overriding allocate, owner, spots, store, and copyContents; all other
+ *  operations are written in terms of those.
  *  @author Iskander Rakhmanberdiyev
  */
 class MutableBoard extends Board {
 
+    /** Colors indexed by ordinal, as returned by owner. */
+    static final Color[] COLORS = Color.values();
+
+    /** Ordinals of the player colors. */
+    private static final int
+        RED = Color.RED.ordinal(),
+        BLUE = Color.BLUE.ordinal();
+
     /** Total combined number of moves. */
     protected int _moves;
 
     /** Size of board: squares along one edge. */
     private int _N;
 
-    /** 2 dimensional array for all of the squares. */
-    private final Square[][] _squareArray;
+    /** The Geometry of N x N boards. */
+    private Geometry _geom;
+
+    /** Number of spots in each square, indexed by square number. */
+    private byte[] _spots;
+
+    /** Ordinal of the Color of each square, indexed by square number. */
+    private byte[] _owners;
+
+    /** Number of squares of each Color, indexed by ordinal. */
+    private final int[] _squareCounts = new int[3];
 
-    /** ArrayList for storing squares. */
-    private final ArrayList<Square> _squareList = new ArrayList<Square>();//This might be referring to "history"
+    /** Total spots in squares of each Color, indexed by ordinal. */
+    private final int[] _spotCounts = new int[3];
+
+    /** The Zobrist hash of my contents and side to move.  Keys under the
+     *  other symmetries of the board (see hashKey(S)) are computed only
+     *  when asked for, so that changing a square updates one key. */
+    private long _hash;
 
     /** An N x N board in initial configuration. */
     MutableBoard(int N) {
-        _N = N;
-        _moves = 0;
-        _squareArray = new Square[N][N];
-        for (int i = 0; i < N; i++) {
-            for (int j = 0; j < N; j++) {
-                _squareArray[i][j] = new Square();
-            }
-        }
-        for (Square[] outer : _squareArray) {//This part might cause an
-        	//error due to creation of layers
-            for (Square square : outer) {
-                square = new Square();
-                _squareList.add(square);
-            }
-        }
+        clear(N);
     }
 
     /** A board whose initial contents are copied from BOARD0. Clears the
      *  undo history. */
     MutableBoard(Board board0) {
-        _N = board0.size();
-        _squareArray = new Square[_N][_N];
-
         copy(board0);
     }
 
     @Override
     void clear(int N) {
-        for (Square[] outer : _squareArray) {
-            for (Square square : outer) {
-                square = new Square();
-                _squareList.add(square);//I think I MUST NOT add these elements into the array. Beforehand, I HAVE TO CLEAR IT FIRST.
-            }
-        }
-        _N = N;
+        resize(N);
+        allocate(N);
         _moves = 0;
+        clearUndo();
+        Arrays.fill(_squareCounts, 0);
+        Arrays.fill(_spotCounts, 0);
+        _squareCounts[Color.WHITE.ordinal()] = N * N;
+        _hash = 0;
     }
 
     @Override
     void copy(Board board) {
-        for (int i = 0; i < _N; i++) {
-            for (int j = 0; j < _N; j++) {
-                _squareArray[i][j] = new Square(board.color(i + 1, j + 1),
-                    board.spots(i + 1, j + 1));
-                _squareList.add(_squareArray[i][j]);
+        int N = board.size();
+        if (N != _N) {
+            resize(N);
+            allocate(N);
+        }
+        if (copyContents(board)) {
+            MutableBoard other = (MutableBoard) board;
+            System.arraycopy(other._squareCounts, 0, _squareCounts, 0, 3);
+            System.arraycopy(other._spotCounts, 0, _spotCounts, 0, 3);
+            _hash = other._hash;
+            _moves = board.numMoves();
+        } else {
+            for (int n = 0; n < N * N; n += 1) {
+                store(n, board.spots(n), board.color(n).ordinal());
             }
+            _moves = board.numMoves();
+            recount();
+        }
+        clearUndo();
+    }
+
+    /** Make me a copy of BOARD transformed by symmetry #S (see
+     *  Geometry.transform), so that each square #n of BOARD is copied to
+     *  my square #transform(S, n).  In particular,
+     *  copy(BOARD, BOARD.canonicalSymmetry()) makes me BOARD's canonical
+     *  form, whose hashKey() is BOARD.canonicalKey().  Clears the undo
+     *  history. */
+    void copy(Board board, int s) {
+        if (s == 0) {
+            copy(board);
+            return;
+        }
+        int N = board.size();
+        if (N != _N) {
+            resize(N);
+            allocate(N);
+        }
+        for (int n = 0; n < N * N; n += 1) {
+            store(_geom.transform(s, n), board.spots(n),
+                  board.color(n).ordinal());
+        }
+        _moves = board.numMoves();
+        recount();
+        clearUndo();
+    }
+
+    /** Recompute my square and spot counts and hash key from my
+     *  contents and _moves. */
+    private void recount() {
+        Arrays.fill(_squareCounts, 0);
+        Arrays.fill(_spotCounts, 0);
+        _hash = _moves % 2 == 0 ? 0 : _geom.sideKey();
+        for (int n = 0; n < _N * _N; n += 1) {
+            int spots = spots(n), owner = owner(n);
+            _squareCounts[owner] += 1;
+            _spotCounts[owner] += spots;
+            _hash ^= _geom.zobrist(n, owner, spots);
+        }
+    }
+
+    /** Set my size to N, resizing my working storage to match. */
+    private void resize(int N) {
+        _N = N;
+        _geom = Geometry.of(N);
+        if (_pending == null || _pending.length != N * N) {
+            _pending = new int[N * N];
+            _touched = new int[N * N];
+            _serial = 0;
+        }
+    }
+
+    /** Make my contents an empty N x N board, reusing my current storage
+     *  if it is the right size. */
+    void allocate(int N) {
+        if (_spots == null || _spots.length != N * N) {
+            _spots = new byte[N * N];
+            _owners = new byte[N * N];
+        } else {
+            Arrays.fill(_spots, (byte) 0);
+            Arrays.fill(_owners, (byte) 0);
         }
     }
 
+    /** Copy the contents of all squares of BOARD, which is my size and
+     *  a MutableBoard if this succeeds, into me in bulk and return true,
+     *  or return false if BOARD's representation does not allow this. */
+    boolean copyContents(Board board) {
+        if (board.getClass() != MutableBoard.class) {
+            return false;
+        }
+        MutableBoard other = (MutableBoard) board;
+        System.arraycopy(other._spots, 0, _spots, 0, _spots.length);
+        System.arraycopy(other._owners, 0, _owners, 0, _owners.length);
+        return true;
+    }
+
+    /** Returns the ordinal of the Color of square #N. */
+    int owner(int n) {
+        return _owners[n];
+    }
+
+    /** Set square #N to SPOTS spots, colored by the Color whose ordinal is
+     *  OWNER.  All changes to square contents go through here. */
+    void store(int n, int spots, int owner) {
+        _spots[n] = (byte) spots;
+        _owners[n] = (byte) owner;
+    }
+
     @Override
     int size() {
         return _N;
     }
 
+    @Override
+    Geometry geometry() {
+        return _geom;
+    }
+
+    @Override
+    int neighbors(int n) {
+        return _geom.neighbors(n);
+    }
+
+    @Override
+    long hashKey() {
+        return _hash;
+    }
+
     @Override
     int spots(int r, int c) {
-        return _squareArray[r - 1][c - 1].getNumSpots();
+        return spots(sqNum(r, c));
     }
 
     @Override
     int spots(int n) {
-        return _squareList.get(n).getNumSpots();
+        return _spots[n];
     }
 
     @Override
     Color color(int r, int c) {
-        return _squareArray[r - 1][c - 1].getColor();//I think this should be _squareArray[c-1][r-1], but it looks like many implemented it this way
+        return color(sqNum(r, c));
     }
 
     @Override
     Color color(int n) {
-    	//or //return _squareArray[row(n - 1)][col(n - 1)];
-        return _squareList.get(n).getColor();//This might be the place where the error is occurring because _SQUARELIST is being added to even during CLEAR(), but here
-        //color takes in the element from the existing _SQUARELIST, where N might not be relating to the right index
+        return COLORS[owner(n)];
     }
 
     @Override
@@ -103,91 +226,204 @@ class MutableBoard extends Board {
 
     @Override
     int numOfColor(Color color) {
-        int result = 0;
-        for (Square square : _squareList) {
-            if (square.getColor() == color) {
-                result += 1;
-            }
+        return _squareCounts[color.ordinal()];
+    }
+
+    /** Return the total number of spots in squares of given COLOR. */
+    int numOfSpots(Color color) {
+        return _spotCounts[color.ordinal()];
+    }
+
+    @Override
+    Color getWinner() {
+        int total = _N * _N;
+        if (_squareCounts[RED] == total) {
+            return Color.RED;
+        } else if (_squareCounts[BLUE] == total) {
+            return Color.BLUE;
         }
-        return result;
+        return null;
     }
 
     @Override
     void addSpot(Color player, int r, int c) {
-        //r = r -1;
-        //c = c - 1;
-        if (color(r, c) == Color.WHITE) {
-            _squareArray[r - 1][c - 1].setColor(player);
-        }
-        _squareArray[r - 1][c - 1].addSpot();
-        if (spots(r, c) > neighbors(r, c)) {
-            jump(sqNum(r, c));
-        }
+        addSpot(player, sqNum(r, c));
     }
 
     @Override
     void addSpot(Color player, int n) {
-        addSpot(player, row(n), col(n));
+        if (_numMarks == _marks.length) {
+            _marks = Arrays.copyOf(_marks, 2 * _marks.length);
+        }
+        _marks[_numMarks] = _journalSize;
+        _numMarks += 1;
+        _serial += 1;
+        put(n, spots(n) + 1, player.ordinal());
+        jump(n);
+        _moves += 1;
+        flipSide();
     }
 
     @Override
     void set(int r, int c, int num, Color player) {
-        _squareArray[r][c].setColor(player);
-        _squareArray[r][c].setNumSpots(num);
+        set(sqNum(r, c), num, player);
     }
 
     @Override
     void set(int n, int num, Color player) {
-        _squareList.get(n).setColor(player);
-        _squareList.get(n).setNumSpots(num);
+        assign(n, num, (num == 0 ? Color.WHITE : player).ordinal());
+        clearUndo();
     }
 
     @Override
     void setMoves(int num) {
-        assert num > 0;
+        assert num >= 0;
+        if ((num - _moves) % 2 != 0) {
+            flipSide();
+        }
         _moves = num;
+        clearUndo();
     }
 
     @Override
     void undo() {
-        /*
-        if (_oldBoard == null) {
-            GameException.error("Error, no old board exists.");
+        assert _numMarks > 0 : "no move to undo";
+        _numMarks -= 1;
+        int start = _marks[_numMarks];
+        for (int k = _journalSize - 1; k >= start; k -= 1) {
+            int entry = _journal[k];
+            assign(entry >>> 10, (entry >>> 2) & 0xff, entry & 3);
         }
-        copy(_oldBoard);
-        */
+        _journalSize = start;
+        _serial += 1;
+        _moves -= 1;
+        flipSide();
+    }
+
+    /** Set square #N to SPOTS spots with owner OWNER, as for store, first
+     *  recording its previous contents in the undo journal if this is the
+     *  first change to N during the current move. */
+    private void put(int N, int spots, int owner) {
+        if (_touched[N] != _serial) {
+            _touched[N] = _serial;
+            if (_journalSize == _journal.length) {
+                _journal = Arrays.copyOf(_journal, 2 * _journal.length);
+            }
+            _journal[_journalSize] = (N << 10) | (spots(N) << 2) | owner(N);
+            _journalSize += 1;
+        }
+        assign(N, spots, owner);
+    }
+
+    /** Set square #N to SPOTS spots with owner OWNER, as for store,
+     *  keeping the square and spot counts and the hash key up to
+     *  date. */
+    private void assign(int N, int spots, int owner) {
+        int oldOwner = owner(N), oldSpots = spots(N);
+        _squareCounts[oldOwner] -= 1;
+        _spotCounts[oldOwner] -= oldSpots;
+        _squareCounts[owner] += 1;
+        _spotCounts[owner] += spots;
+        _hash ^= _geom.zobrist(N, oldOwner, oldSpots)
+            ^ _geom.zobrist(N, owner, spots);
+        store(N, spots, owner);
+    }
+
+    /** Change the side to move in my hash key. */
+    private void flipSide() {
+        _hash ^= _geom.sideKey();
+    }
+
+    /** Forget all moves recorded for undo. */
+    private void clearUndo() {
+        _numMarks = _journalSize = 0;
+        _serial += 1;
     }
 
     /** Do all jumping on this board, assuming that initially, N is the only
-     *  square that might be over-full. */
+     *  square that might be over-full.  Over-full squares wait their turn
+     *  in the ring buffer _pending, which holds each square at most once:
+     *  a square is queued only when a spot takes it past its number of
+     *  neighbors, and requeued if it is still over-full after jumping.
+     *  Stops as soon as one player owns every square, since otherwise
+     *  jumping may go on forever. */
     private void jump(int N) {
-        int row = row(N);
-        int col = col(N);
-        Color color = _squareArray[row][col].getColor();
-
-        if (row != 1) {
-            _squareArray[row][col].removeSpot();
-            _squareArray[row - 1][col].setColor(color);
-            _squareArray[row - 1][col].addSpot();
-        }
-        if (row != _N) {
-            System.out.print("here");
-            _squareArray[row][col].removeSpot();
-            _squareArray[row + 1][col].setColor(color);
-            _squareArray[row + 1][col].addSpot();
-        }
-        if (col != 1) {
-            _squareArray[row][col].removeSpot();
-            _squareArray[row][col - 1].setColor(color);
-            _squareArray[row][col - 1].addSpot();
-        }
-        System.out.println(col + " : " + _N);
-        if (col != _N) {
-            System.out.println("here too");
-            _squareArray[row][col].removeSpot();
-            _squareArray[row][col + 1].setColor(color);
-            _squareArray[row][col + 1].addSpot();
+        Geometry geom = _geom;
+        if (spots(N) <= geom.neighbors(N)) {
+            return;
+        }
+        _head = _count = 0;
+        enqueue(N);
+        while (_count > 0 && getWinner() == null) {
+            int n = _pending[_head];
+            _head = _head + 1 == _pending.length ? 0 : _head + 1;
+            _count -= 1;
+            int owner = owner(n);
+            int first = geom.firstNeighbor(n), last = geom.firstNeighbor(n + 1);
+            int left = spots(n) - (last - first);
+            put(n, left, owner);
+            if (left > last - first) {
+                enqueue(n);
+            }
+            for (int k = first; k < last; k += 1) {
+                spill(geom.neighbor(k), owner);
+            }
         }
     }
 
+    /** Add a spot of the color whose ordinal is OWNER to square #N, which
+     *  neighbors a square that just jumped, queuing N if that makes it
+     *  over-full. */
+    private void spill(int N, int owner) {
+        int spots = spots(N) + 1;
+        put(N, spots, owner);
+        if (spots == _geom.neighbors(N) + 1) {
+            enqueue(N);
+        }
+    }
+
+    /** Add square #N to the end of _pending. */
+    private void enqueue(int N) {
+        int tail = _head + _count;
+        if (tail >= _pending.length) {
+            tail -= _pending.length;
+        }
+        _pending[tail] = N;
+        _count += 1;
+    }
+
+    /** Over-full squares waiting to jump, as a ring buffer with room for
+     *  every square. */
+    private int[] _pending;
+
+    /** Index in _pending of the next square to jump. */
+    private int _head;
+
+    /** Number of squares in _pending. */
+    private int _count;
+
+    /** The undo journal: the previous contents of each square changed by
+     *  each move since the undo history was last cleared, oldest first.
+     *  Entry bits 10 and up hold the square number, bits 2-9 its spots,
+     *  and bits 0-1 its owner. */
+    private int[] _journal = new int[64];
+
+    /** Number of entries in _journal. */
+    private int _journalSize;
+
+    /** _marks[k] is the index in _journal of the first entry for move #k
+     *  since the undo history was last cleared. */
+    private int[] _marks = new int[16];
+
+    /** Number of moves in _marks. */
+    private int _numMarks;
+
+    /** _touched[n] == _serial iff square #n is already in the journal
+     *  for the current move. */
+    private int[] _touched;
+
+    /** Identifies the current move for _touched; advanced at the start of
+     *  each move and whenever the journal is rewound. */
+    private int _serial;
+
 }
@@ -0,0 +1,132 @@
+package jump61;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** A table of moves for positions early in games on boards of one size,
+ *  read directly from a memory-mapped file.  The file, written by
+ *  write, holds a header of four ints (MAGIC, VERSION, the board size,
+ *  and the number of entries, K), then the K canonical keys (see
+ *  Board.canonicalKey) of the positions in the book in increasing order
+ *  as longs, and then the K corresponding moves as shorts, each the
+ *  square number of the move on the position's canonical form.  All
+ *  numbers are big-endian.  Lookups search the mapped keys in place, so
+ *  that opening a book reads nothing but its header, and processes
+ *  using the same book share its pages.
+ *  @author Iskander Rakhmanberdiyev
+ */
+class OpeningBook {
+
+    /** The move returned by lookup for positions not in the book. */
+    static final int NO_MOVE = -1;
+
+    /** Identifies opening-book files: "J61B". */
+    static final int MAGIC = 0x4a363142;
+
+    /** Version of the file format. */
+    static final int VERSION = 1;
+
+    /** Bytes in the file header. */
+    private static final int HEADER_BYTES = 16;
+
+    /** The book contained in the file named FILE.  Throws IOException
+     *  if FILE cannot be read or is not an opening book. */
+    OpeningBook(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                                                    StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("not an opening book");
+            }
+            _data = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                                channel.size());
+        }
+        if (_data.getInt(0) != MAGIC) {
+            throw new IOException("not an opening book");
+        } else if (_data.getInt(4) != VERSION) {
+            throw new IOException("unsupported opening book version");
+        }
+        _size = _data.getInt(8);
+        _count = _data.getInt(12);
+        if (_size < 1 || _count < 0
+            || _data.capacity() != HEADER_BYTES + 10L * _count) {
+            throw new IOException("malformed opening book");
+        }
+    }
+
+    /** Returns the number of rows and columns of the boards in my
+     *  positions. */
+    int size() {
+        return _size;
+    }
+
+    /** Returns the number of positions I hold. */
+    int count() {
+        return _count;
+    }
+
+    /** Returns the book move for the position on BOARD, as a square number
+     *  on BOARD, or NO_MOVE if the position is not in the book. */
+    int lookup(Board board) {
+        if (board.size() != _size) {
+            return NO_MOVE;
+        }
+        int sym = board.canonicalSymmetry();
+        long key = board.hashKey(sym);
+        int lo = 0, hi = _count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long midKey = _data.getLong(HEADER_BYTES + 8 * mid);
+            if (midKey < key) {
+                lo = mid + 1;
+            } else if (midKey > key) {
+                hi = mid - 1;
+            } else {
+                int move = _data.getShort(HEADER_BYTES + 8 * _count
+                                          + 2 * mid);
+                if (move < 0 || move >= _size * _size) {
+                    return NO_MOVE;
+                }
+                return board.geometry().untransform(sym, move);
+            }
+        }
+        return NO_MOVE;
+    }
+
+    /** Write a book for SIZE x SIZE boards to the file named FILE,
+     *  replacing any previous contents.  Its entries are KEYS[i] and
+     *  MOVES[i] for 0 <= i < KEYS.length, where KEYS is in strictly
+     *  increasing order and each MOVES[i] is a square number on the
+     *  canonical form of the position with key KEYS[i]. */
+    static void write(Path file, int size, long[] keys, int[] moves)
+        throws IOException {
+        ByteBuffer out =
+            ByteBuffer.allocate(HEADER_BYTES + 10 * keys.length);
+        out.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(keys.length);
+        for (long key : keys) {
+            out.putLong(key);
+        }
+        for (int move : moves) {
+            out.putShort((short) move);
+        }
+        out.flip();
+        try (FileChannel channel =
+             FileChannel.open(file, StandardOpenOption.CREATE,
+                              StandardOpenOption.WRITE,
+                              StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /** The mapped contents of my file. */
+    private final MappedByteBuffer _data;
+
+    /** Board size and number of entries, from my header. */
+    private final int _size, _count;
+
+}
@@ -0,0 +1,56 @@
+package jump61;
+
+import static jump61.Color.BLUE;
+import static jump61.Color.RED;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+/** Unit tests of OpeningBooks.
+ *  @author Iskander Rakhmanberdiyev
+ */
+public class OpeningBookTest {
+
+    @Test
+    public void testLookup() throws IOException {
+        MutableBoard A = new MutableBoard(4);
+        A.addSpot(RED, 2);
+        MutableBoard B = new MutableBoard(4);
+        B.addSpot(RED, 2);
+        B.addSpot(BLUE, 5);
+        long[] keys = { A.canonicalKey(), B.canonicalKey() };
+        int[] moves = new int[2];
+        moves[0] = A.geometry().transform(A.canonicalSymmetry(), 7);
+        moves[1] = B.geometry().transform(B.canonicalSymmetry(), 0);
+        if (keys[0] > keys[1]) {
+            keys = new long[] { keys[1], keys[0] };
+            moves = new int[] { moves[1], moves[0] };
+        }
+        Path file = File.createTempFile("jump61", ".book").toPath();
+        try {
+            OpeningBook.write(file, 4, keys, moves);
+            OpeningBook book = new OpeningBook(file);
+            assertEquals("wrong size", 4, book.size());
+            assertEquals("wrong count", 2, book.count());
+            assertEquals("wrong move", 7, book.lookup(A));
+            assertEquals("wrong move", 0, book.lookup(B));
+
+            MutableBoard C = new MutableBoard(4);
+            C.copy(A, 5);
+            assertEquals("wrong move for reflection",
+                         A.geometry().transform(5, 7), book.lookup(C));
+            C.addSpot(BLUE, 0);
+            assertEquals("unexpected move", OpeningBook.NO_MOVE,
+                         book.lookup(C));
+            assertEquals("unexpected move", OpeningBook.NO_MOVE,
+                         book.lookup(new MutableBoard(5)));
+        } finally {
+            file.toFile().delete();
+        }
+    }
+
+}
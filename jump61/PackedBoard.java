@@ -0,0 +1,161 @@
+package jump61;
+
+/** A MutableBoard for boards of at most MAX_SIZE squares on a side, which
+ *  keeps its whole contents in a few long words.  Square #n is bit n of
+ *  the red and blue ownership masks, and nibble n of the spot words.
+ *  @author Iskander Rakhmanberdiyev
+ */
+class PackedBoard extends MutableBoard {
+
+    /** The largest board size a PackedBoard can represent. */
+    static final int MAX_SIZE = 8;
+
+    /** Number of spot counts packed into one long. */
+    private static final int SPOTS_PER_WORD = 16;
+
+    /** An N x N board in initial configuration.  Requires
+     *  N <= MAX_SIZE. */
+    PackedBoard(int N) {
+        super(N);
+    }
+
+    /** A board whose initial contents are copied from BOARD0, which must
+     *  be no larger than MAX_SIZE. Clears the undo history. */
+    PackedBoard(Board board0) {
+        super(board0);
+    }
+
+    @Override
+    void allocate(int N) {
+        if (N > MAX_SIZE) {
+            throw new IllegalArgumentException("board too large to pack: "
+                                               + N);
+        }
+        _full = N == MAX_SIZE ? -1L : (1L << (N * N)) - 1;
+        _red = _blue = 0;
+        _spots0 = _spots1 = _spots2 = _spots3 = 0;
+    }
+
+    @Override
+    boolean copyContents(Board board) {
+        if (!(board instanceof PackedBoard)) {
+            return false;
+        }
+        PackedBoard other = (PackedBoard) board;
+        _red = other._red;
+        _blue = other._blue;
+        _spots0 = other._spots0;
+        _spots1 = other._spots1;
+        _spots2 = other._spots2;
+        _spots3 = other._spots3;
+        return true;
+    }
+
+    @Override
+    int owner(int n) {
+        long bit = 1L << n;
+        if ((_red & bit) != 0) {
+            return RED_ORD;
+        } else if ((_blue & bit) != 0) {
+            return BLUE_ORD;
+        }
+        return WHITE_ORD;
+    }
+
+    @Override
+    int spots(int n) {
+        return (int) (spotWord(n) >>> shift(n)) & 0xf;
+    }
+
+    @Override
+    void store(int n, int spots, int owner) {
+        assert spots < SPOTS_PER_WORD;
+        long bit = 1L << n;
+        _red &= ~bit;
+        _blue &= ~bit;
+        if (owner == RED_ORD) {
+            _red |= bit;
+        } else if (owner == BLUE_ORD) {
+            _blue |= bit;
+        }
+        int shift = shift(n);
+        long word = (spotWord(n) & ~(0xfL << shift))
+            | ((long) spots << shift);
+        switch (n / SPOTS_PER_WORD) {
+        case 0:
+            _spots0 = word;
+            break;
+        case 1:
+            _spots1 = word;
+            break;
+        case 2:
+            _spots2 = word;
+            break;
+        default:
+            _spots3 = word;
+            break;
+        }
+    }
+
+    @Override
+    int numOfColor(Color color) {
+        switch (color) {
+        case RED:
+            return Long.bitCount(_red);
+        case BLUE:
+            return Long.bitCount(_blue);
+        default:
+            return Long.bitCount(_full & ~(_red | _blue));
+        }
+    }
+
+    @Override
+    Color getWinner() {
+        if (_red == _full) {
+            return Color.RED;
+        } else if (_blue == _full) {
+            return Color.BLUE;
+        }
+        return null;
+    }
+
+    /** Returns the long holding the spot count of square #N. */
+    private long spotWord(int n) {
+        switch (n / SPOTS_PER_WORD) {
+        case 0:
+            return _spots0;
+        case 1:
+            return _spots1;
+        case 2:
+            return _spots2;
+        default:
+            return _spots3;
+        }
+    }
+
+    /** Returns the bit position of the spot count of square #N within its
+     *  word. */
+    private static int shift(int n) {
+        return (n % SPOTS_PER_WORD) * 4;
+    }
+
+    /** Ordinals of the colors, as returned by owner. */
+    private static final int
+        WHITE_ORD = Color.WHITE.ordinal(),
+        RED_ORD = Color.RED.ordinal(),
+        BLUE_ORD = Color.BLUE.ordinal();
+
+    /** Mask of the bits in _red and _blue that denote squares. */
+    private long _full;
+
+    /** Bit n is set iff square #n is red. */
+    private long _red;
+
+    /** Bit n is set iff square #n is blue. */
+    private long _blue;
+
+    /** Spot counts of squares 0-15, 16-31, 32-47, and 48-63, four bits
+     *  each. */
+    private long _spots0, _spots1, _spots2, _spots3;
+
+}
@@ -0,0 +1,189 @@
+package jump61;
+
+import java.util.SplittableRandom;
+
+/** Finishes games with random moves, as fast as possible, for players
+ *  that judge positions by playouts.  A Playout keeps its own scratch
+ *  copy of the position, with neither the hash keys nor the undo
+ *  journal of a MutableBoard, and keeps the squares of each color in a
+ *  list, so that choosing a random legal move takes constant time.
+ *  Moves are chosen with the Playout's own random-number generator, so
+ *  that Playouts in different threads do not contend, and each thread's
+ *  results depend only on how its generator was seeded.  Nothing is
+ *  allocated except when the board size changes.
+ *  @author Iskander Rakhmanberdiyev
+ */
+class Playout {
+
+    /** Make RANDOM the source of my random moves. */
+    void setRandom(SplittableRandom random) {
+        _random = random;
+    }
+
+    /** Make my position that on BOARD. */
+    void load(MutableBoard board) {
+        int squares = board.size() * board.size();
+        if (_geom == null || _geom.size() != board.size()) {
+            _geom = board.geometry();
+            _spots = new byte[squares];
+            _owners = new byte[squares];
+            _place = new int[squares];
+            _pending = new int[squares];
+            for (int c = 0; c < 3; c += 1) {
+                _members[c] = new int[squares];
+            }
+        }
+        _count[0] = _count[1] = _count[2] = 0;
+        for (int n = 0; n < squares; n += 1) {
+            int owner = board.owner(n);
+            _spots[n] = (byte) board.spots(n);
+            _owners[n] = (byte) owner;
+            _place[n] = _count[owner];
+            _members[owner][_count[owner]] = n;
+            _count[owner] += 1;
+        }
+        _player = board.whoseMove().ordinal();
+        _moves = 0;
+    }
+
+    /** Play random moves from my position until one player wins, and
+     *  return the winner. */
+    Color play() {
+        int squares = _spots.length;
+        int winner = winner();
+        while (winner == WHITE) {
+            int p = _player;
+            int k = _random.nextInt(_count[WHITE] + _count[p]);
+            int n = k < _count[WHITE] ? _members[WHITE][k]
+                : _members[p][k - _count[WHITE]];
+            addSpot(p, n);
+            _moves += 1;
+            _player = RED + BLUE - p;
+            winner = _count[p] == squares ? p : WHITE;
+        }
+        return COLORS[winner];
+    }
+
+    /** Returns the number of moves made by the last call to play. */
+    int moves() {
+        return _moves;
+    }
+
+    /** Returns the ordinal of the Color of square #N. */
+    int owner(int n) {
+        return _owners[n];
+    }
+
+    /** Returns the number of spots in square #N. */
+    int spots(int n) {
+        return _spots[n];
+    }
+
+    /** Returns the ordinal of the winner in my position, or of WHITE if
+     *  there is none. */
+    private int winner() {
+        int squares = _spots.length;
+        if (_count[RED] == squares) {
+            return RED;
+        } else if (_count[BLUE] == squares) {
+            return BLUE;
+        }
+        return WHITE;
+    }
+
+    /** Add a spot for the player whose ordinal is P to square #N, and do
+     *  all the resulting jumps, as for MutableBoard.addSpot. */
+    private void addSpot(int p, int n) {
+        Geometry geom = _geom;
+        int squares = _spots.length;
+        setOwner(n, p);
+        _spots[n] += 1;
+        if (_spots[n] <= geom.neighbors(n)) {
+            return;
+        }
+        int head = 0, count = 1;
+        _pending[0] = n;
+        while (count > 0 && _count[p] < squares) {
+            int m = _pending[head];
+            head = head + 1 == squares ? 0 : head + 1;
+            count -= 1;
+            int first = geom.firstNeighbor(m),
+                last = geom.firstNeighbor(m + 1);
+            _spots[m] -= last - first;
+            if (_spots[m] > last - first) {
+                int tail = head + count < squares ? head + count
+                    : head + count - squares;
+                _pending[tail] = m;
+                count += 1;
+            }
+            for (int k = first; k < last; k += 1) {
+                int x = geom.neighbor(k);
+                setOwner(x, p);
+                _spots[x] += 1;
+                if (_spots[x] == geom.neighbors(x) + 1) {
+                    int tail = head + count < squares ? head + count
+                        : head + count - squares;
+                    _pending[tail] = x;
+                    count += 1;
+                }
+            }
+        }
+    }
+
+    /** Make square #N belong to the player whose ordinal is P, moving it
+     *  between the lists of squares of each color. */
+    private void setOwner(int n, int p) {
+        int old = _owners[n];
+        if (old == p) {
+            return;
+        }
+        int k = _place[n], moved = _members[old][_count[old] - 1];
+        _members[old][k] = moved;
+        _place[moved] = k;
+        _count[old] -= 1;
+        _members[p][_count[p]] = n;
+        _place[n] = _count[p];
+        _count[p] += 1;
+        _owners[n] = (byte) p;
+    }
+
+    /** Ordinals of the Colors. */
+    private static final int
+        WHITE = Color.WHITE.ordinal(),
+        RED = Color.RED.ordinal(),
+        BLUE = Color.BLUE.ordinal();
+
+    /** The Colors, indexed by ordinal. */
+    private static final Color[] COLORS = Color.values();
+
+    /** Source of random moves. */
+    private SplittableRandom _random;
+
+    /** Geometry of my board, or null before the first load. */
+    private Geometry _geom;
+
+    /** The spots and owner's ordinal of each square. */
+    private byte[] _spots, _owners;
+
+    /** _members[c][0 .. _count[c]-1] are the squares whose owner has
+     *  ordinal c, in no particular order. */
+    private final int[][] _members = new int[3][];
+
+    /** Number of squares of each color, indexed by ordinal. */
+    private final int[] _count = new int[3];
+
+    /** The index of each square in the list in _members that holds
+     *  it. */
+    private int[] _place;
+
+    /** Over-full squares waiting to jump, as a ring buffer with room for
+     *  every square. */
+    private int[] _pending;
+
+    /** Ordinal of the player to move. */
+    private int _player;
+
+    /** Number of moves made by the current or last playout. */
+    private int _moves;
+
+}
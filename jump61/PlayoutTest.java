@@ -0,0 +1,42 @@
+package jump61;
+
+import static jump61.Color.BLUE;
+import static jump61.Color.RED;
+import static org.junit.Assert.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+/** Unit tests of Playouts.
+ *  @author Iskander Rakhmanberdiyev
+ */
+public class PlayoutTest {
+
+    @Test
+    public void testPlay() {
+        MutableBoard B = new MutableBoard(5);
+        B.addSpot(RED, 0);
+        B.addSpot(BLUE, 12);
+        B.addSpot(RED, 0);
+        int spots = B.numOfSpots(RED) + B.numOfSpots(BLUE);
+        Playout P = new Playout(), Q = new Playout();
+        for (long seed = 0; seed < 20; seed += 1) {
+            P.setRandom(new SplittableRandom(seed));
+            P.load(B);
+            Color winner = P.play();
+            int total = 0;
+            for (int n = 0; n < 25; n += 1) {
+                assertEquals("square not won", winner.ordinal(), P.owner(n));
+                total += P.spots(n);
+            }
+            assertEquals("spots not conserved", spots + P.moves(), total);
+
+            Q.setRandom(new SplittableRandom(seed));
+            Q.load(B);
+            assertEquals("not reproducible", winner, Q.play());
+            assertEquals("not reproducible", P.moves(), Q.moves());
+        }
+    }
+
+}
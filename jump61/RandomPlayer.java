@@ -0,0 +1,40 @@
+package jump61;
+
+/** A Player that chooses uniformly at random among its legal moves,
+ *  using its game's random-number generator.  Useful as a baseline
+ *  opponent for AI players.
+ *  @author Iskander Rakhmanberdiyev
+ */
+class RandomPlayer extends Player {
+
+    /** A new player of GAME initially playing COLOR. */
+    RandomPlayer(Game game, Color color) {
+        super(game, color);
+    }
+
+    @Override
+    void makeMove() {
+        Board board = getBoard();
+        Color p = getColor();
+        int legal = 0;
+        for (int n = 0; n < board.size() * board.size(); n += 1) {
+            if (p.playableSquare(board.color(n))) {
+                legal += 1;
+            }
+        }
+        int k = getGame().randInt(legal);
+        for (int n = 0; ; n += 1) {
+            if (p.playableSquare(board.color(n))) {
+                if (k == 0) {
+                    getGame().message("%s moves %d %d.%n",
+                                      p.toCapitalizedString(),
+                                      board.row(n), board.col(n));
+                    getGame().makeMove(n);
+                    return;
+                }
+                k -= 1;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package jump61;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Serves games of Jump61 over TCP, one per connection.  Each
+ *  connection is a session: a Game reading commands from the socket
+ *  and writing its prompts, output, and error messages back to it, in
+ *  batch mode, so that output is sent when the Game waits for the next
+ *  command.  Sessions run in virtual threads where the Java runtime has
+ *  them (Java 21 on), so that a blocked session costs little, and
+ *  otherwise in platform threads, one per session.  Each of those is a
+ *  kernel thread with its own stack, so that on Java 17 the number of
+ *  sessions is bounded by the per-user thread limit (ulimit -u) and by
+ *  memory for stacks (which -Xss reduces), as well as by open files,
+ *  one per session.  The searches of automated players in
+ *  all sessions share a fixed pool of platform threads, so that however
+ *  many sessions there are, the CPUs are not oversubscribed, and one
+ *  transposition table, so that memory use does not grow with the
+ *  number of sessions.
+ *  @author Iskander Rakhmanberdiyev
+ */
+class Server {
+
+    /** Most connections waiting to be accepted. */
+    static final int BACKLOG = 4096;
+
+    /** Least time in milliseconds between agings of the shared
+     *  transposition table (see TranspositionTable.ageEvery). */
+    static final int TABLE_AGING_MILLIS = 1000;
+
+    /** Serve games on PORT forever, searching with one thread per
+     *  processor. */
+    static void run(int port) throws IOException {
+        Server server =
+            new Server(port, Runtime.getRuntime().availableProcessors());
+        System.err.printf("Serving %s on port %d%n", Defaults.VERSION,
+                          server.port());
+        server.serve();
+    }
+
+    /** A server listening on PORT, or on any free port if PORT is 0,
+     *  whose automated players search with at most THREADS threads in
+     *  all. */
+    Server(int port, int threads) throws IOException {
+        _socket = new ServerSocket();
+        _socket.bind(new InetSocketAddress(port), BACKLOG);
+        _searches = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "jump61-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        _sessions = newSessionExecutor();
+        _table = new TranspositionTable(Defaults.TABLE_MEGABYTES << 20);
+        _table.ageEvery(TABLE_AGING_MILLIS);
+    }
+
+    /** Returns the port on which I listen. */
+    int port() {
+        return _socket.getLocalPort();
+    }
+
+    /** Accept connections and start a session for each until I am
+     *  closed. */
+    void serve() {
+        while (!_socket.isClosed()) {
+            Socket socket;
+            try {
+                socket = _socket.accept();
+            } catch (IOException excp) {
+                if (!_socket.isClosed()) {
+                    System.err.printf("accept failed: %s%n",
+                                      excp.getMessage());
+                }
+                continue;
+            }
+            _sessions.execute(() -> session(socket));
+        }
+    }
+
+    /** Stop accepting connections.  Sessions in progress continue. */
+    void close() throws IOException {
+        _socket.close();
+        _sessions.shutdown();
+        _searches.shutdown();
+    }
+
+    /** Play a session with the client connected to SOCKET, closing it
+     *  when the session ends. */
+    private void session(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            Reader input =
+                new InputStreamReader(socket.getInputStream(), UTF_8);
+            Writer output = new BufferedWriter(
+                new OutputStreamWriter(socket.getOutputStream(), UTF_8));
+            Game game = new Game(input, output, output, output, true);
+            game.share(_searches, _table);
+            game.play();
+        } catch (IOException excp) {
+            /* The client has gone; nothing more to do. */
+        }
+    }
+
+    /** Returns an executor that runs each task in a new virtual thread,
+     *  or in a new or reused platform thread if this Java runtime has no
+     *  virtual threads.  Found reflectively, so that this class compiles
+     *  and runs on Java 17. */
+    static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException excp) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "jump61-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /** The socket on which I accept connections. */
+    private final ServerSocket _socket;
+
+    /** Threads for searches by automated players. */
+    private final ExecutorService _searches;
+
+    /** The transposition table shared by all sessions. */
+    private final TranspositionTable _table;
+
+    /** Runs sessions. */
+    private final ExecutorService _sessions;
+
+}
@@ -0,0 +1,178 @@
+package jump61;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** A position read from a snapshot file, as written by write.  The
+ *  file holds a header (the int MAGIC, the byte VERSION, the board size
+ *  N as a short, the number of moves made as an int, and the ordinal of
+ *  the Color of the player to move, which must agree with the number of
+ *  moves, as a byte), then the number of spots in each of the N * N
+ *  squares in order of square number, two to a byte with the first in
+ *  the high nibble, and then the ordinal of the Color of each square,
+ *  four to a byte with the first in the highest two bits.  All numbers
+ *  are big-endian.  No square may hold more spots than it has
+ *  neighbors unless one player owns every square.  Restoring a
+ *  snapshot takes one read and a pass over the squares, so that games
+ *  can be checkpointed and resumed far faster than by replaying
+ *  commands.
+ *  @author Iskander Rakhmanberdiyev
+ */
+class Snapshot {
+
+    /** Identifies snapshot files: "J61S". */
+    static final int MAGIC = 0x4a363153;
+
+    /** Version of the file format. */
+    static final int VERSION = 1;
+
+    /** Bytes in the file header. */
+    private static final int HEADER_BYTES = 12;
+
+    /** Most spots a square may hold in a snapshot. */
+    private static final int MAX_SPOTS = 15;
+
+    /** The snapshot in the file named FILE.  Throws IOException if FILE
+     *  cannot be read or does not hold a valid snapshot. */
+    static Snapshot read(Path file) throws IOException {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file,
+                                                    StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("not a snapshot");
+            }
+            data = ByteBuffer.allocate((int) length);
+            while (data.hasRemaining()) {
+                if (channel.read(data) < 0) {
+                    throw new IOException("snapshot truncated");
+                }
+            }
+        }
+        return new Snapshot(data);
+    }
+
+    /** Write the position on BOARD to the file named FILE as a snapshot,
+     *  replacing any previous contents.  Throws IOException if the file
+     *  cannot be written or a square holds too many spots to record. */
+    static void write(Path file, Board board) throws IOException {
+        int size = board.size(), squares = size * size;
+        ByteBuffer out = ByteBuffer.allocate(length(size));
+        out.putInt(MAGIC).put((byte) VERSION).putShort((short) size)
+            .putInt(board.numMoves())
+            .put((byte) (board.numMoves() % 2 == 0 ? RED : BLUE));
+        for (int n = 0; n < squares; n += 2) {
+            int high = board.spots(n),
+                low = n + 1 < squares ? board.spots(n + 1) : 0;
+            if (high > MAX_SPOTS || low > MAX_SPOTS) {
+                throw new IOException("too many spots to save");
+            }
+            out.put((byte) (high << 4 | low));
+        }
+        for (int n = 0; n < squares; n += 4) {
+            int bits = 0;
+            for (int k = n; k < n + 4; k += 1) {
+                int owner = k < squares ? board.color(k).ordinal() : 0;
+                bits = bits << 2 | owner;
+            }
+            out.put((byte) bits);
+        }
+        out.flip();
+        try (FileChannel channel =
+             FileChannel.open(file, StandardOpenOption.CREATE,
+                              StandardOpenOption.WRITE,
+                              StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /** A snapshot whose file contents are DATA, read to its end.  Throws
+     *  IOException if DATA is not a valid snapshot. */
+    private Snapshot(ByteBuffer data) throws IOException {
+        _data = data;
+        if (data.getInt(0) != MAGIC) {
+            throw new IOException("not a snapshot");
+        } else if (data.get(4) != VERSION) {
+            throw new IOException("unsupported snapshot version");
+        }
+        _size = data.getShort(5);
+        _moves = data.getInt(7);
+        if (_size < 1 || _moves < 0 || data.capacity() != length(_size)
+            || data.get(11) != (_moves % 2 == 0 ? RED : BLUE)) {
+            throw new IOException("malformed snapshot");
+        }
+        Geometry geom = Geometry.of(_size);
+        int squares = _size * _size;
+        int[] counts = new int[3];
+        boolean overfull = false;
+        for (int n = 0; n < squares; n += 1) {
+            int owner = owner(n);
+            if (owner > BLUE || (owner == WHITE) != (spots(n) == 0)) {
+                throw new IOException("malformed snapshot");
+            }
+            overfull |= spots(n) > geom.neighbors(n);
+            counts[owner] += 1;
+        }
+        if (overfull && counts[RED] != squares && counts[BLUE] != squares) {
+            throw new IOException("malformed snapshot");
+        }
+    }
+
+    /** Returns the number of rows and of columns of my board. */
+    int size() {
+        return _size;
+    }
+
+    /** Make the contents and number of moves of BOARD, which must be
+     *  size() x size(), those of my position.  Clears BOARD's undo
+     *  history. */
+    void restore(MutableBoard board) {
+        for (int n = 0; n < _size * _size; n += 1) {
+            board.set(n, spots(n), COLORS[owner(n)]);
+        }
+        board.setMoves(_moves);
+    }
+
+    /** Returns the length in bytes of a snapshot of SIZE x SIZE
+     *  boards. */
+    private static int length(int size) {
+        int squares = size * size;
+        return HEADER_BYTES + (squares + 1) / 2 + (squares + 3) / 4;
+    }
+
+    /** Returns the number of spots in square #N of my position. */
+    private int spots(int n) {
+        int bits = _data.get(HEADER_BYTES + n / 2);
+        return (n % 2 == 0 ? bits >> 4 : bits) & 0xf;
+    }
+
+    /** Returns the ordinal of the Color of square #N of my position. */
+    private int owner(int n) {
+        int offset = HEADER_BYTES + (_size * _size + 1) / 2 + n / 4;
+        return _data.get(offset) >> (6 - 2 * (n % 4)) & 3;
+    }
+
+    /** Ordinals of the Colors. */
+    private static final int
+        WHITE = Color.WHITE.ordinal(),
+        RED = Color.RED.ordinal(),
+        BLUE = Color.BLUE.ordinal();
+
+    /** The Colors, indexed by ordinal. */
+    private static final Color[] COLORS = Color.values();
+
+    /** The contents of my file. */
+    private final ByteBuffer _data;
+
+    /** The board size of my position. */
+    private final int _size;
+
+    /** The number of moves made in my position. */
+    private final int _moves;
+
+}
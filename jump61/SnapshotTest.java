@@ -0,0 +1,101 @@
+package jump61;
+
+import static jump61.Color.BLUE;
+import static jump61.Color.RED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Test;
+
+/** Unit tests of Snapshots.
+ *  @author Iskander Rakhmanberdiyev
+ */
+public class SnapshotTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path file = File.createTempFile("jump61", ".snap").toPath();
+        try {
+            for (int size = 2; size <= 9; size += 1) {
+                MutableBoard B = Game.newBoard(size);
+                for (int n = 0; n < size * size; n += 3) {
+                    B.addSpot(n % 2 == 0 ? RED : BLUE, n);
+                }
+                B.addSpot(B.whoseMove(), size * size - 1);
+                Snapshot.write(file, B);
+                assertEquals("wrong file length",
+                             12 + (size * size + 1) / 2
+                             + (size * size + 3) / 4,
+                             Files.size(file));
+                Snapshot S = Snapshot.read(file);
+                assertEquals("wrong size", size, S.size());
+                MutableBoard C = Game.newBoard(size);
+                C.addSpot(RED, 0);
+                S.restore(C);
+                assertEquals("wrong position", B, C);
+                assertEquals("wrong player", B.whoseMove(), C.whoseMove());
+            }
+
+            MutableBoard B = new MutableBoard(3);
+            Random random = new Random(0);
+            while (B.getWinner() == null) {
+                int n = random.nextInt(9);
+                if (B.isLegal(B.whoseMove(), n)) {
+                    B.addSpot(B.whoseMove(), n);
+                }
+            }
+            boolean overfull = false;
+            for (int n = 0; n < 9; n += 1) {
+                overfull |= B.spots(n) > B.neighbors(n);
+            }
+            assertTrue("no over-full square in won position", overfull);
+            Snapshot.write(file, B);
+            MutableBoard C = new MutableBoard(3);
+            Snapshot.read(file).restore(C);
+            assertEquals("won position not restored", B, C);
+        } finally {
+            file.toFile().delete();
+        }
+    }
+
+    @Test
+    public void testMalformed() throws IOException {
+        Path file = File.createTempFile("jump61", ".snap").toPath();
+        try {
+            Snapshot.write(file, new MutableBoard(3));
+            byte[] data = Files.readAllBytes(file);
+            data[11] ^= 3;
+            Files.write(file, data);
+            try {
+                Snapshot.read(file);
+                fail("bad player to move accepted");
+            } catch (IOException excp) {
+                /* Expected. */
+            }
+
+            MutableBoard B = new MutableBoard(2);
+            B.addSpot(RED, 0);
+            B.addSpot(BLUE, 3);
+            Snapshot.write(file, B);
+            data = Files.readAllBytes(file);
+            data[12] = (byte) (5 << 4 | data[12] & 0xf);
+            Files.write(file, data);
+            try {
+                Snapshot.read(file);
+                fail("over-full corner accepted");
+            } catch (IOException excp) {
+                /* Expected. */
+            }
+        } finally {
+            file.toFile().delete();
+        }
+    }
+
+}
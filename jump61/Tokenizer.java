@@ -0,0 +1,285 @@
+package jump61;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.NoSuchElementException;
+
+/** Splits command input into blank-separated tokens, a line at a time.
+ *  A Tokenizer reads through its own buffer and parses integers and
+ *  recognizes keywords directly from the characters of each token, so
+ *  that reading a command made of keywords and numbers creates no
+ *  objects.  Tokens never span lines: the methods that return tokens
+ *  look only at the rest of the current line, and skipLine moves on to
+ *  the next.
+ *  @author Iskander Rakhmanberdiyev
+ */
+class Tokenizer {
+
+    /** Size of my input buffer in characters. */
+    static final int BUFFER_SIZE = 8192;
+
+    /** Kinds of the next token: not yet read, an ordinary token, the end
+     *  of a line, and the end of input. */
+    private static final int NONE = 0, WORD = 1, LINE_END = 2, INPUT_END = 3;
+
+    /** A Tokenizer reading INPUT, whose next method returns the strings
+     *  in KEYWORDS themselves for tokens equal to them. */
+    Tokenizer(Reader input, String... keywords) {
+        _input = input;
+        int size = 2;
+        while (size < 2 * keywords.length) {
+            size *= 2;
+        }
+        _keywords = new String[size];
+        for (String keyword : keywords) {
+            int h = keyword.hashCode() & (size - 1);
+            while (_keywords[h] != null) {
+                h = (h + 1) & (size - 1);
+            }
+            _keywords[h] = keyword;
+        }
+    }
+
+    /** Returns true iff there is no more input, blocking until there is
+     *  input or its end if need be. */
+    boolean atEnd() {
+        return peek() == INPUT_END;
+    }
+
+    /** Returns true iff more input, or its end, can be read without
+     *  blocking. */
+    boolean ready() {
+        if (_kind != NONE || _pos < _limit || _limit < 0) {
+            return true;
+        }
+        try {
+            return _input.ready();
+        } catch (IOException excp) {
+            return true;
+        }
+    }
+
+    /** Returns true iff there is another token on the current line. */
+    boolean hasNext() {
+        return peek() == WORD;
+    }
+
+    /** Returns true iff there is another token on the current line and
+     *  it is a decimal integer in the range of an int. */
+    boolean hasNextInt() {
+        return hasNextLong()
+            && _value >= Integer.MIN_VALUE && _value <= Integer.MAX_VALUE;
+    }
+
+    /** Returns true iff there is another token on the current line and
+     *  it is a decimal integer in the range of a long. */
+    boolean hasNextLong() {
+        if (peek() != WORD) {
+            return false;
+        }
+        if (!_parsed) {
+            _parsed = true;
+            _numeric = parse();
+        }
+        return _numeric;
+    }
+
+    /** Returns the next token on the current line as a String: one of my
+     *  keywords if it is equal to one, and otherwise a new String.
+     *  Throws NoSuchElementException if there is none. */
+    String next() {
+        if (peek() != WORD) {
+            throw new NoSuchElementException();
+        }
+        _kind = NONE;
+        int h = 0;
+        for (int i = 0; i < _length; i += 1) {
+            h = 31 * h + _token[i];
+        }
+        int mask = _keywords.length - 1;
+        for (h &= mask; _keywords[h] != null; h = (h + 1) & mask) {
+            if (matches(_keywords[h])) {
+                return _keywords[h];
+            }
+        }
+        return new String(_token, 0, _length);
+    }
+
+    /** Returns the next token on the current line as an int.  Throws
+     *  NoSuchElementException unless hasNextInt(). */
+    int nextInt() {
+        if (!hasNextInt()) {
+            throw new NoSuchElementException();
+        }
+        _kind = NONE;
+        return (int) _value;
+    }
+
+    /** Returns the next token on the current line as a long.  Throws
+     *  NoSuchElementException unless hasNextLong(). */
+    long nextLong() {
+        if (!hasNextLong()) {
+            throw new NoSuchElementException();
+        }
+        _kind = NONE;
+        return _value;
+    }
+
+    /** Discard the rest of the current line, including its end. */
+    void skipLine() {
+        if (_kind == INPUT_END) {
+            return;
+        }
+        _kind = NONE;
+        while (true) {
+            int c = read();
+            if (c == -1 || c == '\n') {
+                return;
+            } else if (c == '\r') {
+                if (peekChar() == '\n') {
+                    _pos += 1;
+                }
+                return;
+            }
+        }
+    }
+
+    /** Returns true iff the current token is equal to KEYWORD. */
+    private boolean matches(String keyword) {
+        if (keyword.length() != _length) {
+            return false;
+        }
+        for (int i = 0; i < _length; i += 1) {
+            if (keyword.charAt(i) != _token[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Set _value to the value of the current token and return true if
+     *  it is a decimal integer in the range of a long.  Otherwise return
+     *  false. */
+    private boolean parse() {
+        int i = 0;
+        boolean negative = false;
+        if (_length > 1 && (_token[0] == '-' || _token[0] == '+')) {
+            negative = _token[0] == '-';
+            i = 1;
+        }
+        if (i == _length) {
+            return false;
+        }
+        long value = 0;
+        for (; i < _length; i += 1) {
+            int d = _token[i] - '0';
+            if (d < 0 || d > 9 || value < (Long.MIN_VALUE + d) / 10) {
+                return false;
+            }
+            value = 10 * value - d;
+        }
+        if (!negative && value == Long.MIN_VALUE) {
+            return false;
+        }
+        _value = negative ? value : -value;
+        return true;
+    }
+
+    /** Read the next token, if not already read, and return its kind. */
+    private int peek() {
+        if (_kind != NONE) {
+            return _kind;
+        }
+        int c = peekChar();
+        while (c == ' ' || c == '\t') {
+            _pos += 1;
+            c = peekChar();
+        }
+        if (c == -1) {
+            _kind = INPUT_END;
+        } else if (c == '\n' || c == '\r') {
+            _kind = LINE_END;
+        } else {
+            _length = 0;
+            while (c != -1 && c != ' ' && c != '\t' && c != '\n'
+                   && c != '\r') {
+                if (_length == _token.length) {
+                    char[] token = new char[2 * _length];
+                    System.arraycopy(_token, 0, token, 0, _length);
+                    _token = token;
+                }
+                _token[_length] = (char) c;
+                _length += 1;
+                _pos += 1;
+                c = peekChar();
+            }
+            _kind = WORD;
+            _parsed = false;
+        }
+        return _kind;
+    }
+
+    /** Returns the next character of input, or -1 at its end, without
+     *  consuming it. */
+    private int peekChar() {
+        if (_pos == _limit) {
+            if (_limit < 0) {
+                return -1;
+            }
+            try {
+                _limit = _input.read(_buffer);
+            } catch (IOException excp) {
+                _limit = -1;
+            }
+            _pos = 0;
+            if (_limit < 0) {
+                _pos = _limit;
+                return -1;
+            }
+        }
+        return _buffer[_pos];
+    }
+
+    /** Returns and consumes the next character of input, or returns -1
+     *  at its end. */
+    private int read() {
+        int c = peekChar();
+        if (c != -1) {
+            _pos += 1;
+        }
+        return c;
+    }
+
+    /** Source of my input. */
+    private final Reader _input;
+
+    /** Buffered input, of which _buffer[_pos .. _limit-1] is yet to be
+     *  read.  _pos == _limit == -1 at the end of input. */
+    private final char[] _buffer = new char[BUFFER_SIZE];
+
+    /** Bounds of the unread input in _buffer. */
+    private int _pos, _limit;
+
+    /** My keywords, in an open-addressed hash table indexed by the
+     *  hashCode of each keyword. */
+    private final String[] _keywords;
+
+    /** Kind of the next token, or NONE if it has yet to be read. */
+    private int _kind = NONE;
+
+    /** When _kind is WORD, the token's characters are
+     *  _token[0 .. _length-1]. */
+    private char[] _token = new char[64];
+
+    /** Length of the current token. */
+    private int _length;
+
+    /** True iff the current token has been parsed as an integer, in
+     *  which case _numeric is true iff it is one, and its value is
+     *  _value. */
+    private boolean _parsed, _numeric;
+
+    /** The value of the current token, if numeric. */
+    private long _value;
+
+}
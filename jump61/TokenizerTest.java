@@ -0,0 +1,121 @@
+package jump61;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+
+/** Unit tests of Tokenizers.
+ *  @author Iskander Rakhmanberdiyev
+ */
+public class TokenizerTest {
+
+    @Test
+    public void testLongLimits() {
+        Tokenizer T = tokenizer("9223372036854775807 -9223372036854775808"
+                                + " 9223372036854775808"
+                                + " -9223372036854775809");
+        assertTrue("max long rejected", T.hasNextLong());
+        assertEquals("wrong max", Long.MAX_VALUE, T.nextLong());
+        assertTrue("min long rejected", T.hasNextLong());
+        assertEquals("wrong min", Long.MIN_VALUE, T.nextLong());
+        assertFalse("max + 1 accepted", T.hasNextLong());
+        assertEquals("wrong token", "9223372036854775808", T.next());
+        assertFalse("min - 1 accepted", T.hasNextLong());
+        assertEquals("wrong token", "-9223372036854775809", T.next());
+        assertFalse("extra token", T.hasNext());
+    }
+
+    @Test
+    public void testSigns() {
+        Tokenizer T = tokenizer("+ - +5 -0 -x");
+        assertFalse("lone + accepted", T.hasNextLong());
+        assertEquals("wrong token", "+", T.next());
+        assertFalse("lone - accepted", T.hasNextLong());
+        assertEquals("wrong token", "-", T.next());
+        assertEquals("wrong value", 5, T.nextInt());
+        assertEquals("wrong value", 0, T.nextInt());
+        assertFalse("-x accepted", T.hasNextInt());
+        assertEquals("wrong token", "-x", T.next());
+    }
+
+    @Test
+    public void testLongToken() {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 200; i += 1) {
+            word.append((char) ('a' + i % 26));
+        }
+        StringBuilder digits = new StringBuilder("-");
+        for (int i = 0; i < 70; i += 1) {
+            digits.append('0');
+        }
+        digits.append("42");
+        Tokenizer T = tokenizer(word + " " + digits + " end");
+        assertEquals("long token cut", word.toString(), T.next());
+        assertEquals("long number misread", -42, T.nextInt());
+        assertEquals("wrong token", "end", T.next());
+    }
+
+    @Test
+    public void testLineEnds() {
+        Tokenizer T = tokenizer("a 1\r\nb\n\n  \t\nc\r\n\r\nd  e");
+        assertEquals("wrong token", "a", T.next());
+        assertEquals("wrong value", 1, T.nextInt());
+        assertFalse("token past CRLF", T.hasNext());
+        T.skipLine();
+        assertEquals("wrong token", "b", T.next());
+        T.skipLine();
+        assertFalse("token on blank line", T.hasNext());
+        T.skipLine();
+        assertFalse("token on blank line", T.hasNext());
+        T.skipLine();
+        assertEquals("wrong token", "c", T.next());
+        T.skipLine();
+        assertFalse("token on blank line", T.hasNext());
+        assertFalse("end too soon", T.atEnd());
+        T.skipLine();
+        assertEquals("wrong token", "d", T.next());
+        assertEquals("wrong token", "e", T.next());
+        assertFalse("extra token", T.hasNext());
+        assertTrue("end not seen", T.atEnd());
+        T.skipLine();
+        assertTrue("end not seen", T.atEnd());
+    }
+
+    @Test
+    public void testKeywords() {
+        String keyword = new String("dump");
+        Tokenizer T = new Tokenizer(new StringReader("dump dumps x x red"),
+                                    keyword, "red");
+        assertSame("keyword not shared", keyword, T.next());
+        assertEquals("wrong token", "dumps", T.next());
+        String x = T.next();
+        assertEquals("wrong token", "x", x);
+        assertNotSame("non-keyword shared", x, T.next());
+        assertSame("keyword not shared", "red", T.next());
+    }
+
+    @Test
+    public void testIntVersusLong() {
+        Tokenizer T = tokenizer("seed 4294967296 2147483648 -2147483648");
+        assertEquals("wrong token", "seed", T.next());
+        assertFalse("too big for int", T.hasNextInt());
+        assertTrue("not a long", T.hasNextLong());
+        assertEquals("wrong value", 4294967296L, T.nextLong());
+        assertFalse("max int + 1 accepted", T.hasNextInt());
+        assertEquals("wrong value", 2147483648L, T.nextLong());
+        assertTrue("min int rejected", T.hasNextInt());
+        assertEquals("wrong value", Integer.MIN_VALUE, T.nextInt());
+    }
+
+    /** Returns a Tokenizer, with no keywords, reading INPUT. */
+    private static Tokenizer tokenizer(String input) {
+        return new Tokenizer(new StringReader(input));
+    }
+
+}
@@ -0,0 +1,292 @@
+package jump61;
+
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/** Plays many games between two kinds of player without user input, in
+ *  parallel, and reports how they fared.  Each game is a separate Game,
+ *  seeded through its seed command, that shares no mutable state with
+ *  the others, so that each game's result depends only on its seed.
+ *  The players alternate colors from one game to the next.
+ *  @author Iskander Rakhmanberdiyev
+ */
+class Tournament {
+
+    /** Run the tournament described by ARGS and print its results on the
+     *  standard output.  ARGS are
+     *      [-games M] [-size N] [-threads T] [-seed S] [-hash MB] P1 P2
+     *  for M games (default 100) on N x N boards (default
+     *  Defaults.BOARD_SIZE), T at a time (default: one per processor),
+     *  seeded with S, S + 1, ... (default 1), each with an MB-megabyte
+     *  transposition table (default 4), between players of kinds P1 and
+     *  P2, each of which is "ai" (an AI with the default depth), "ai:D"
+     *  (an AI searching to depth D), "mcts" (a MonteCarloPlayer), or
+     *  "random" (a RandomPlayer).
+     *  Throws IllegalArgumentException if ARGS is malformed. */
+    static void run(String... args) {
+        Tournament tournament = new Tournament();
+        tournament.parse(args);
+        tournament.playAll();
+    }
+
+    /** Set my parameters from ARGS, as described for run.  Throws
+     *  IllegalArgumentException if ARGS is malformed. */
+    private void parse(String... args) {
+        int k;
+        for (k = 0; k + 1 < args.length && args[k].startsWith("-"); k += 2) {
+            int value = Integer.parseInt(args[k + 1]);
+            switch (args[k]) {
+            case "-games":
+                _games = value;
+                break;
+            case "-size":
+                _size = value;
+                break;
+            case "-threads":
+                _threads = value;
+                break;
+            case "-seed":
+                _seed = value;
+                break;
+            case "-hash":
+                _hash = value;
+                break;
+            default:
+                throw new IllegalArgumentException(args[k]);
+            }
+        }
+        if (k + 2 != args.length || _games < 1 || _size < 2
+            || _size > Defaults.MAX_SIZE || _threads < 1 || _hash < 1) {
+            throw new IllegalArgumentException();
+        }
+        _names[0] = args[k];
+        _names[1] = args[k + 1];
+        for (String name : _names) {
+            newPlayer(name, null, Color.RED);
+        }
+    }
+
+    /** Returns a new Player of the kind named NAME (see run) in GAME,
+     *  playing COLOR.  Throws IllegalArgumentException if there is no
+     *  such kind. */
+    private static Player newPlayer(String name, Game game, Color color) {
+        if (name.equals("ai")) {
+            return new AI(game, color);
+        } else if (name.startsWith("ai:")) {
+            int depth = Integer.parseInt(name.substring(3));
+            if (depth < 0 || depth > Defaults.MAX_DEPTH) {
+                throw new IllegalArgumentException(name);
+            }
+            return new AI(game, color, depth);
+        } else if (name.equals("mcts")) {
+            return new MonteCarloPlayer(game, color);
+        } else if (name.equals("random")) {
+            return new RandomPlayer(game, color);
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    /** Play all games and report the results. */
+    private void playAll() {
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(_threads);
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int i = 0; i < _games; i += 1) {
+            long seed = _seed + i;
+            boolean swap = i % 2 != 0;
+            futures.add(pool.submit(() -> play(seed, swap)));
+        }
+        List<Result> results = new ArrayList<>();
+        try {
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException | ExecutionException excp) {
+            throw new Error("game failed", excp);
+        } finally {
+            pool.shutdown();
+        }
+        report(results, (System.nanoTime() - start) / 1e9);
+    }
+
+    /** Returns the result of one game played after seeding with SEED,
+     *  in which the first player is red unless SWAP. */
+    private Result play(long seed, boolean swap) {
+        String script = String.format("seed %d%nsize %d%nhash %d%nstart%n",
+                                      seed, _size, _hash);
+        Game game = new Game(new StringReader(script), Writer.nullWriter(),
+                             Writer.nullWriter(), Writer.nullWriter(), true);
+        Result result = new Result();
+        TimedPlayer[] players = new TimedPlayer[2];
+        for (int i = 0; i < 2; i += 1) {
+            Color color = (i == 0) != swap ? Color.RED : Color.BLUE;
+            players[i] = new TimedPlayer(newPlayer(_names[i], game, color));
+            game.setPlayer(players[i]);
+        }
+        game.play();
+        result.firstLatencies = players[0].latencies();
+        result.secondLatencies = players[1].latencies();
+        Board board = game.getBoard();
+        Color winner = board.getWinner();
+        result.moves = board.numMoves();
+        result.winner = winner == null ? -1
+            : winner == players[0].getColor() ? 0 : 1;
+        result.winnerIsRed = winner == Color.RED;
+        return result;
+    }
+
+    /** Print a summary of RESULTS, which took ELAPSED seconds. */
+    private void report(List<Result> results, double elapsed) {
+        System.out.printf("%d games of %s vs %s on %dx%d boards, "
+                          + "seeds %d-%d, %d threads, %.1f s%n",
+                          _games, _names[0], _names[1], _size, _size,
+                          _seed, _seed + _games - 1, _threads, elapsed);
+        System.out.printf("%-12s %6s %7s %7s %7s%n",
+                          "player", "wins", "rate", "as red", "as blue");
+        for (int i = 0; i < 2; i += 1) {
+            int wins, red;
+            wins = red = 0;
+            for (Result result : results) {
+                if (result.winner == i) {
+                    wins += 1;
+                    if (result.winnerIsRed) {
+                        red += 1;
+                    }
+                }
+            }
+            System.out.printf("%-12s %6d %6.1f%% %7d %7d%n", _names[i], wins,
+                              100.0 * wins / results.size(), red, wins - red);
+        }
+
+        int[] lengths = new int[results.size()];
+        long total = 0;
+        for (int k = 0; k < lengths.length; k += 1) {
+            lengths[k] = results.get(k).moves;
+            total += lengths[k];
+        }
+        Arrays.sort(lengths);
+        System.out.printf("game length (moves): mean %.1f, median %d, "
+                          + "min %d, max %d%n",
+                          (double) total / lengths.length,
+                          lengths[lengths.length / 2], lengths[0],
+                          lengths[lengths.length - 1]);
+
+        System.out.printf("%-12s %9s %9s %9s %9s%n", "latency (ms)",
+                          "p50", "p90", "p99", "max");
+        for (int i = 0; i < 2; i += 1) {
+            int count = 0;
+            for (Result result : results) {
+                count += result.latencies(i).length;
+            }
+            long[] times = new long[count];
+            int k = 0;
+            for (Result result : results) {
+                long[] latencies = result.latencies(i);
+                System.arraycopy(latencies, 0, times, k, latencies.length);
+                k += latencies.length;
+            }
+            Arrays.sort(times);
+            System.out.printf("%-12s %9.3f %9.3f %9.3f %9.3f%n", _names[i],
+                              percentile(times, 50), percentile(times, 90),
+                              percentile(times, 99), percentile(times, 100));
+        }
+    }
+
+    /** Returns the Pth percentile of TIMES, in nanoseconds and sorted
+     *  in increasing order, in milliseconds, or 0 if TIMES is empty. */
+    private static double percentile(long[] times, int p) {
+        if (times.length == 0) {
+            return 0.0;
+        }
+        int k = (int) Math.ceil(p / 100.0 * times.length) - 1;
+        return times[Math.max(k, 0)] / 1e6;
+    }
+
+    /** The outcome of one game. */
+    private static class Result {
+        /** Index in _names of the winner, or -1 if none. */
+        private int winner;
+        /** True iff red won. */
+        private boolean winnerIsRed;
+        /** Number of moves played. */
+        private int moves;
+        /** Time in nanoseconds taken by each move of the first player. */
+        private long[] firstLatencies;
+        /** Time in nanoseconds taken by each move of the second player. */
+        private long[] secondLatencies;
+
+        /** Returns the times of the moves of player #I (0 or 1). */
+        long[] latencies(int i) {
+            return i == 0 ? firstLatencies : secondLatencies;
+        }
+    }
+
+    /** A Player that makes moves with another, recording the time each
+     *  move takes. */
+    private static class TimedPlayer extends Player {
+
+        /** A player making moves with PLAYER. */
+        TimedPlayer(Player player) {
+            super(player.getGame(), player.getColor());
+            _player = player;
+        }
+
+        @Override
+        void setColor(Color color) {
+            super.setColor(color);
+            _player.setColor(color);
+        }
+
+        @Override
+        void makeMove() {
+            long start = System.nanoTime();
+            _player.makeMove();
+            if (_numMoves == _latencies.length) {
+                _latencies = Arrays.copyOf(_latencies, 2 * _numMoves);
+            }
+            _latencies[_numMoves] = System.nanoTime() - start;
+            _numMoves += 1;
+        }
+
+        /** Returns the time in nanoseconds taken by each of my moves so
+         *  far. */
+        long[] latencies() {
+            return Arrays.copyOf(_latencies, _numMoves);
+        }
+
+        /** The player that actually makes my moves. */
+        private final Player _player;
+
+        /** The times of my moves, in _latencies[0 .. _numMoves-1]. */
+        private long[] _latencies = new long[64];
+
+        /** Number of moves I have made. */
+        private int _numMoves;
+    }
+
+    /** Names of the kinds of the two players. */
+    private final String[] _names = new String[2];
+
+    /** Number of games. */
+    private int _games = 100;
+
+    /** Board size. */
+    private int _size = Defaults.BOARD_SIZE;
+
+    /** Number of games played at once. */
+    private int _threads = Runtime.getRuntime().availableProcessors();
+
+    /** Seed of the first game; game #i is seeded with _seed + i. */
+    private long _seed = 1;
+
+    /** Size in megabytes of each game's transposition table. */
+    private int _hash = 4;
+
+}
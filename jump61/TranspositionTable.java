@@ -0,0 +1,215 @@
+package jump61;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** A fixed-size cache of search results, indexed by the Zobrist keys of
+ *  positions (see Board.hashKey).  Each entry records the depth to which
+ *  a position was searched, the value found, whether that value is
+ *  exact or a bound, and the best move.  Entries live in two parallel
+ *  arrays of longs, one holding the entry's fields packed into a single
+ *  data word and the other the exclusive or of the position's key with
+ *  that word, so that an entry whose two words do not belong together
+ *  simply fails to match.  A key may occupy any of the CLUSTER slots
+ *  starting at its home slot; when all are taken, a new entry replaces
+ *  the one left by the oldest search, or failing that, the shallowest.
+ *  @author Iskander Rakhmanberdiyev
+ */
+class TranspositionTable {
+
+    /** Bound types: the stored value is exact, a lower bound, or an upper
+     *  bound on the value of its position. */
+    static final int EXACT = 1, LOWER = 2, UPPER = 3;
+
+    /** The move recorded in an entry with no best move. */
+    static final int NO_MOVE = -1;
+
+    /** Number of consecutive slots in which a key may be stored. */
+    private static final int CLUSTER = 4;
+
+    /** Bytes used by one entry. */
+    private static final int ENTRY_BYTES = 16;
+
+    /** A table using at most BYTES bytes of storage (but at least room
+     *  for one cluster). */
+    TranspositionTable(long bytes) {
+        long entries = Long.highestOneBit(Math.max(bytes / ENTRY_BYTES,
+                                                   CLUSTER));
+        entries = Math.min(entries, 1 << 30);
+        _checks = new long[(int) entries];
+        _data = new long[(int) entries];
+        _mask = (int) entries - CLUSTER;
+    }
+
+    /** Returns the data word stored for the position with key KEY, or 0 if
+     *  there is none.  Use depth, score, bound, and move to unpack it. */
+    long probe(long key) {
+        int home = (int) key & _mask;
+        for (int i = home; i < home + CLUSTER; i += 1) {
+            long data = _data[i];
+            if (data != 0 && (_checks[i] ^ data) == key) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /** Record that the position with key KEY has value SCORE, of bound
+     *  type BOUND, when searched to depth DEPTH (0 <= DEPTH < 256), and
+     *  that its best move is MOVE (NO_MOVE <= MOVE < 65535, which
+     *  Defaults.MAX_SIZE ensures).  Returns true iff this displaces an
+     *  entry for another position stored during the current search. */
+    boolean store(long key, int depth, int score, int bound, int move) {
+        assert move >= NO_MOVE && move < 0xffff : "move too large to store";
+        int age = _age;
+        long data = ((long) score << 32) | ((long) depth << 24)
+            | (age << 18) | (bound << 16) | (move + 1);
+        int home = (int) key & _mask;
+        int victim = home;
+        int victimWorth = Integer.MAX_VALUE;
+        for (int i = home; i < home + CLUSTER; i += 1) {
+            long old = _data[i];
+            if (old == 0 || (_checks[i] ^ old) == key) {
+                victim = i;
+                break;
+            }
+            int worth = age(old) == age ? depth(old) + 1 : 0;
+            if (worth < victimWorth) {
+                victim = i;
+                victimWorth = worth;
+            }
+        }
+        long old = _data[victim];
+        boolean collision = old != 0 && (_checks[victim] ^ old) != key
+            && age(old) == age;
+        _data[victim] = data;
+        _checks[victim] = key ^ data;
+        return collision;
+    }
+
+    /** Add PROBES probes, of which HITS found an entry, and STORES
+     *  stores, of which COLLISIONS displaced an entry from the current
+     *  search, to my statistics.  Searchers count these themselves and
+     *  report them here, so that threads sharing the table do not
+     *  contend for the counters on every access. */
+    synchronized void addStats(long probes, long hits, long stores,
+                               long collisions) {
+        _probes += probes;
+        _hits += hits;
+        _stores += stores;
+        _collisions += collisions;
+    }
+
+    /** Remove all entries. */
+    void clear() {
+        Arrays.fill(_checks, 0);
+        Arrays.fill(_data, 0);
+    }
+
+    /** Begin a new search, marking existing entries as left by an older
+     *  search, unless ageEvery has been called and the last such marking
+     *  was less than its interval ago. */
+    void newSearch() {
+        if (_agingInterval == 0) {
+            _age = (_age + 1) & AGE_MASK;
+            return;
+        }
+        long now = System.nanoTime(), last = _lastAging.get();
+        if (now - last >= _agingInterval
+            && _lastAging.compareAndSet(last, now)) {
+            _age = (_age + 1) & AGE_MASK;
+        }
+    }
+
+    /** Make newSearch mark existing entries as old at most once every
+     *  MILLIS milliseconds, rather than at every search.  For tables
+     *  shared by many games searching at once, whose searches would
+     *  otherwise keep making the entries of those still in progress
+     *  look old, and so the first to be replaced. */
+    void ageEvery(long millis) {
+        _agingInterval = millis * 1000000;
+        _lastAging.set(System.nanoTime());
+    }
+
+    /** Returns the search depth recorded in data word DATA. */
+    static int depth(long data) {
+        return (int) (data >>> 24) & 0xff;
+    }
+
+    /** Returns the value recorded in data word DATA. */
+    static int score(long data) {
+        return (int) (data >> 32);
+    }
+
+    /** Returns the bound type recorded in data word DATA. */
+    static int bound(long data) {
+        return (int) (data >>> 16) & 3;
+    }
+
+    /** Returns the best move recorded in data word DATA, or NO_MOVE. */
+    static int move(long data) {
+        return (int) (data & 0xffff) - 1;
+    }
+
+    /** Returns the number of entries the table can hold. */
+    int capacity() {
+        return _data.length;
+    }
+
+    /** Returns the fraction of probes that found an entry. */
+    synchronized double hitRate() {
+        return _probes == 0 ? 0.0 : (double) _hits / _probes;
+    }
+
+    /** Returns the fraction of stores that displaced an entry for another
+     *  position made during the same search. */
+    synchronized double collisionRate() {
+        return _stores == 0 ? 0.0 : (double) _collisions / _stores;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d entries, %d probes, %.1f%% hits, "
+                             + "%d stores, %.1f%% collisions",
+                             capacity(), _probes, 100.0 * hitRate(),
+                             _stores, 100.0 * collisionRate());
+    }
+
+    /** Returns the search age recorded in data word DATA. */
+    private static int age(long data) {
+        return (int) (data >>> 18) & AGE_MASK;
+    }
+
+    /** Mask for search ages, which wrap around. */
+    private static final int AGE_MASK = 0x3f;
+
+    /** Key of each entry's position, exclusive-ored with its data word. */
+    private final long[] _checks;
+
+    /** Each entry's data word: value in bits 32-63, depth in 24-31,
+     *  search age in 18-23, bound type in 16-17, and best move plus one
+     *  in 0-15.  0 for an empty slot. */
+    private final long[] _data;
+
+    /** Mask selecting the home slot of a key, which is always the first
+     *  slot of a cluster. */
+    private final int _mask;
+
+    /** Age of the current search.  When aging by time, only the thread
+     *  that updates _lastAging changes it, so no change is lost. */
+    private volatile int _age;
+
+    /** Least time in nanoseconds between changes of _age, or 0 to change
+     *  it at every search. */
+    private long _agingInterval;
+
+    /** The value of System.nanoTime() when _age last changed, if
+     *  _agingInterval is not 0. */
+    private final AtomicLong _lastAging = new AtomicLong();
+
+    /** Statistics, as reported to addStats: number of probes, of probes
+     *  that hit, of stores, and of stores that displaced an entry from
+     *  the current search. */
+    private long _probes, _hits, _stores, _collisions;
+
+}
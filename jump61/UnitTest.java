@@ -1,17 +1,30 @@
 package jump61;
 
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
 
-/** The suite of all JUnit tests for the Text Formatter.
+/** The suite of all JUnit tests for the jump61 package.
  *  @author
  */
 public class UnitTest {
 
-    /** Run the JUnit tests in the tex61 package. */
+    /** Run the JUnit tests in the jump61 package, reporting each failure,
+     *  and exit with status 1 if any test failed. */
     public static void main(String[] ignored) {
-        // textui.runClasses(jump61.BoardTest.class);
-        // Add other .class arguments to the call above.
+        Result result =
+            JUnitCore.runClasses(BoardTest.class,
+                                 MonteCarloPlayerTest.class,
+                                 OpeningBookTest.class,
+                                 PlayoutTest.class,
+                                 SnapshotTest.class,
+                                 TokenizerTest.class);
+        for (Failure failure : result.getFailures()) {
+            System.err.println(failure);
+        }
+        System.out.printf("%d tests run, %d failed.%n",
+                          result.getRunCount(), result.getFailureCount());
+        System.exit(result.wasSuccessful() ? 0 : 1);
     }
 
 }
-
-